@@ -0,0 +1,122 @@
+package company.employee.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import company.employee.config.SecurityConfig;
+import company.employee.security.ApiKeyAuthenticationFilter;
+import company.employee.security.ApiKeyStore;
+import jakarta.servlet.ServletException;
+
+/**
+ * Per request overhead of the API key filter for public reads, authenticated writes and writes with an
+ * unknown key, with a growing number of configured keys. The public read carries a key as well, only requests
+ * with a key are matched against the public routes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyFilterBenchmark {
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @Param({ "1", "1000" })
+    public int keyCount;
+
+    private Path keysFile;
+    private ApiKeyAuthenticationFilter filter;
+    private String validApiKey;
+    private String employeePath;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> entries = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            validApiKey = UUID.randomUUID().toString();
+            entries.add("client-" + i + ":" + HexFormat.of().formatHex(sha256(validApiKey)));
+        }
+        keysFile = Files.createTempFile("api-keys", ".txt");
+        Files.write(keysFile, entries);
+
+        filter = new ApiKeyAuthenticationFilter(API_KEY_HEADER, SecurityConfig.publicRoutes());
+        filter.setAuthenticationManager(
+                new SecurityConfig().apiKeyAuthenticationManager(new ApiKeyStore("", keysFile.toString())));
+        filter.afterPropertiesSet();
+        employeePath = "/employees/" + UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(keysFile);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRead() throws IOException, ServletException {
+        return filter(request("GET", employeePath, validApiKey));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedWrite() throws IOException, ServletException {
+        return filter(request("POST", "/employees", validApiKey));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse rejectedWrite() throws IOException, ServletException {
+        return filter(request("POST", "/employees", "invalid"));
+    }
+
+    private static MockHttpServletRequest request(final String method, final String path, final String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        // the path request matchers use the servlet path, as set by the dispatcher servlet mapped to /
+        request.setServletPath(path);
+        request.addHeader(API_KEY_HEADER, apiKey);
+        return request;
+    }
+
+    private MockHttpServletResponse filter(final MockHttpServletRequest request)
+            throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    private static byte[] sha256(final String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package company.employee.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * CPU time of writing the GET /employees response body plain and gzip compressed the way Tomcat compresses
+ * it, with and without the Blackbird module. The bytes on the wire of both variants are reported as the
+ * secondary {@code bytes} result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+    @Param({ "1000", "10000", "100000" })
+    public int employeeCount;
+
+    @Param({ "false", "true" })
+    public boolean blackbird;
+
+    private ObjectWriter writer;
+    private List<EmployeeDto> employees;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, EmployeeDto.class));
+        employees = IntStream.range(0, employeeCount)
+                .mapToObj(i -> EmployeeDataGenerator.createEmployeeDto())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long plain(final ResponseSize responseSize) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, employees);
+        responseSize.bytes = out.count;
+        return out.count;
+    }
+
+    @Benchmark
+    public long gzip(final ResponseSize responseSize) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        // GZIPOutputStream with the default level and sync flush, as used by the Tomcat gzip output filter
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, true)) {
+            writer.writeValue(gzip, employees);
+        }
+        responseSize.bytes = out.count;
+        return out.count;
+    }
+
+    /**
+     * The size of a response body, the same for every invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResponseSize {
+        public long bytes;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
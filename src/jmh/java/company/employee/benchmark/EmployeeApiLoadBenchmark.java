@@ -0,0 +1,197 @@
+package company.employee.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import company.employee.EmployeeApplication;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.service.EmployeeService;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * Load test of the HTTP API: more concurrent clients than Tomcat has platform threads, comparing throughput
+ * and latency percentiles (p0.99 in the sample time results) with request handling on platform and on virtual
+ * threads. Virtual threads only take effect in the java21 build. The database defaults to in-memory H2, where
+ * requests hardly wait on I/O, point {@code jdbcUrl} to the MySQL database of {@code compose.yml} for
+ * meaningful results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(400)
+@Fork(1)
+public class EmployeeApiLoadBenchmark {
+    private static final String API_KEY = "load-test";
+
+    @Param({ "false", "true" })
+    public boolean virtualThreads;
+
+    @Param({ "jdbc:h2:mem:employees-load;DB_CLOSE_DELAY=-1" })
+    public String jdbcUrl;
+
+    @Param({ "sa" })
+    public String jdbcUser;
+
+    @Param({ "" })
+    public String jdbcPassword;
+
+    @Param({ "50" })
+    public int connectionPoolSize;
+
+    @Param({ "1000" })
+    public int employeeCount;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private HttpClient httpClient;
+    private URI baseUri;
+    private List<UUID> employeeIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=" + jdbcUser,
+                        "spring.datasource.password=" + jdbcPassword,
+                        "spring.datasource.hikari.maximum-pool-size=" + connectionPoolSize,
+                        "spring.jpa.show-sql=false",
+                        "spring.docker.compose.enabled=false",
+                        "app.virtual-threads.enabled=" + virtualThreads,
+                        "app.http.api-key=" + API_KEY,
+                        "app.http.writes.queue-capacity=10000",
+                        "app.cache.employees.sync.enabled=false",
+                        "app.outbox.relay-enabled=false",
+                        "app.http.rate-limit.enabled=false",
+                        "logging.level.company.employee=WARN")
+                .run();
+        objectMapper = context.getBean(ObjectMapper.class);
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+        EmployeeService employeeService = context.getBean(EmployeeService.class);
+        employeeIds = employeeService.createAll(IntStream.range(0, employeeCount)
+                        .mapToObj(i -> uniqueEmployeeDataDto())
+                        .toList())
+                .stream()
+                .map(result -> result.getEmployee().getEmployeeId())
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getEmployee() throws Exception {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/employees/" + randomEmployeeId()))
+                .GET()
+                .build());
+    }
+
+    @Benchmark
+    public String getEmployeesPage() throws Exception {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/employees?limit=100"))
+                .GET()
+                .build());
+    }
+
+    /**
+     * Concurrent updates of the same employee are certain with this many clients, the losing update is answered
+     * with 409 Conflict and counted instead of failing the run.
+     */
+    @Benchmark
+    public String updateEmployee(final UpdateOutcomes outcomes) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/employees/" + randomEmployeeId()))
+                .header("Content-Type", "application/json")
+                .header("X-API-Key", API_KEY)
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(uniqueEmployeeDataDto())))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 409) {
+            outcomes.conflicts++;
+        } else {
+            checkOk(request, response);
+            outcomes.updated++;
+        }
+        return response.body();
+    }
+
+    /**
+     * Outcomes of the updates of a thread, reported as the secondary {@code updated} and {@code conflicts}
+     * results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class UpdateOutcomes {
+        public long updated;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            updated = 0;
+            conflicts = 0;
+        }
+    }
+
+    private String send(final HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        checkOk(request, response);
+        return response.body();
+    }
+
+    private static void checkOk(final HttpRequest request, final HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " failed: " + response.statusCode());
+        }
+    }
+
+    private String toJson(final EmployeeDataDto employeeDataDto) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(employeeDataDto);
+    }
+
+    private UUID randomEmployeeId() {
+        return employeeIds.get(ThreadLocalRandom.current().nextInt(employeeIds.size()));
+    }
+
+    private static EmployeeDataDto uniqueEmployeeDataDto() {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        employeeDataDto.setEmail(UUID.randomUUID() + "@example.com");
+        return employeeDataDto;
+    }
+}
@@ -0,0 +1,130 @@
+package company.employee.benchmark;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import company.employee.util.UuidSource;
+
+/**
+ * Insert and lookup throughput of a uniquely indexed external id column: VARCHAR(36) versus BINARY(16), random
+ * (v4) versus time-ordered (v7) UUIDs. Runs against in-memory H2 by default, pass {@code -p jdbcUrl=...},
+ * {@code -p jdbcUser=...} and {@code -p jdbcPassword=...} to measure a MySQL instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeIdBenchmark {
+    @Param({ "jdbc:h2:mem:employee-id-benchmark;DB_CLOSE_DELAY=-1" })
+    public String jdbcUrl;
+
+    @Param({ "sa" })
+    public String jdbcUser;
+
+    @Param({ "" })
+    public String jdbcPassword;
+
+    @Param({ "VARCHAR", "BINARY" })
+    public String columnType;
+
+    @Param({ "v4", "v7" })
+    public String uuidVersion;
+
+    @Param({ "100000" })
+    public int initialRows;
+
+    private final UuidSource uuidSource = new UuidSource();
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement lookup;
+    private List<UUID> existingIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS employee_id_benchmark");
+            statement.execute("CREATE TABLE employee_id_benchmark ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "external_id " + ("BINARY".equals(columnType) ? "BINARY(16)" : "VARCHAR(36)") + " NOT NULL, "
+                    + "CONSTRAINT uk_employee_id_benchmark UNIQUE (external_id))");
+        }
+        insert = connection.prepareStatement("INSERT INTO employee_id_benchmark (external_id) VALUES (?)");
+        lookup = connection.prepareStatement("SELECT id FROM employee_id_benchmark WHERE external_id = ?");
+
+        existingIds = new ArrayList<>(initialRows);
+        for (int i = 0; i < initialRows; i++) {
+            UUID id = nextId();
+            bind(insert, id);
+            insert.addBatch();
+            existingIds.add(id);
+            if (i % 1000 == 999) {
+                insert.executeBatch();
+            }
+        }
+        insert.executeBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE employee_id_benchmark");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        bind(insert, nextId());
+        return insert.executeUpdate();
+    }
+
+    @Benchmark
+    public long lookup() throws SQLException {
+        bind(lookup, existingIds.get(ThreadLocalRandom.current().nextInt(existingIds.size())));
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private UUID nextId() {
+        return "v7".equals(uuidVersion) ? uuidSource.timeOrderedUUID() : uuidSource.randomUUID();
+    }
+
+    private void bind(final PreparedStatement statement, final UUID id) throws SQLException {
+        if ("BINARY".equals(columnType)) {
+            statement.setBytes(1, ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array());
+        } else {
+            statement.setString(1, id.toString());
+        }
+    }
+}
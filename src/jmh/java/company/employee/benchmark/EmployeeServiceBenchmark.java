@@ -0,0 +1,115 @@
+package company.employee.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import company.employee.EmployeeApplication;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.dto.EmployeePageDto;
+import company.employee.service.EmployeeService;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * {@link EmployeeService} against an in-memory H2 database seeded with generated employees. Events are
+ * written to the outbox as usual, the outbox relay is disabled so the numbers do not depend on a Kafka broker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+    @Param({ "1000" })
+    public int employeeCount;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private List<UUID> employeeIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:employees-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.show-sql=false",
+                        "spring.docker.compose.enabled=false",
+                        "app.cache.employees.sync.enabled=false",
+                        "app.outbox.relay-enabled=false",
+                        "app.http.rate-limit.enabled=false",
+                        "logging.level.company.employee=WARN")
+                .run();
+        employeeService = context.getBean(EmployeeService.class);
+        employeeIds = IntStream.range(0, employeeCount)
+                .mapToObj(i -> employeeService.create(uniqueEmployeeDataDto()))
+                .flatMap(Optional::stream)
+                .map(EmployeeDto::getEmployeeId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EmployeeDto> find() {
+        return employeeService.find(randomEmployeeId());
+    }
+
+    @Benchmark
+    public List<EmployeeDto> findAll() {
+        return employeeService.findAll();
+    }
+
+    @Benchmark
+    public Optional<EmployeePageDto> findPage() {
+        return employeeService.findPage(null, 100, EmployeeField.ALL);
+    }
+
+    @Benchmark
+    public Optional<EmployeeDto> update() {
+        return employeeService.update(randomEmployeeId(), uniqueEmployeeDataDto(), null);
+    }
+
+    @Benchmark
+    public Optional<EmployeeDto> createAndDelete() {
+        Optional<EmployeeDto> created = employeeService.create(uniqueEmployeeDataDto());
+        return employeeService.delete(created.orElseThrow().getEmployeeId());
+    }
+
+    private UUID randomEmployeeId() {
+        return employeeIds.get(ThreadLocalRandom.current().nextInt(employeeIds.size()));
+    }
+
+    private static EmployeeDataDto uniqueEmployeeDataDto() {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        employeeDataDto.setEmail(UUID.randomUUID() + "@example.com");
+        return employeeDataDto;
+    }
+}
@@ -0,0 +1,80 @@
+package company.employee.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import company.employee.config.ModelMapperConfig;
+import company.employee.domain.Employee;
+import company.employee.domain.Hobby;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.dto.EmployeeDto;
+import company.employee.mapper.EmployeeMapper;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * Compares the ModelMapper configuration with the hand written {@link EmployeeMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    @Param({ "1000" })
+    public int employeeCount;
+
+    private ModelMapper modelMapper;
+    private EmployeeMapper employeeMapper;
+    private List<Employee> employees;
+    private EmployeeDataDto employeeDataDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        employeeMapper = new EmployeeMapper(hobby -> new Hobby(null, hobby));
+        employees = IntStream.range(0, employeeCount)
+                .mapToObj(i -> EmployeeDataGenerator.createEmployee())
+                .collect(Collectors.toList());
+        employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+    }
+
+    @Benchmark
+    public List<EmployeeDto> modelMapperEmployeeToDto() {
+        return employees.stream()
+                .map(e -> modelMapper.map(e, EmployeeDto.class))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<EmployeeDto> employeeMapperEmployeeToDto() {
+        return employees.stream()
+                .map(employeeMapper::toEmployeeDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Employee modelMapperDataDtoToEmployee() {
+        return modelMapper.map(employeeDataDto, Employee.class);
+    }
+
+    @Benchmark
+    public Employee employeeMapperDataDtoToEmployee() {
+        return employeeMapper.toEmployee(employeeDataDto);
+    }
+}
@@ -0,0 +1,62 @@
+package company.employee.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * Jackson serialization of the GET /employees response body, with an object mapper configured the way
+ * Spring Boot configures the one used by the MVC message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({ "1000", "100000" })
+    public int employeeCount;
+
+    private ObjectMapper objectMapper;
+    private List<EmployeeDto> employees;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employees = IntStream.range(0, employeeCount)
+                .mapToObj(i -> EmployeeDataGenerator.createEmployeeDto())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void serializeEmployeeList() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), employees);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeListToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+}
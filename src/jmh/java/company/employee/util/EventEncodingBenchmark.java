@@ -0,0 +1,85 @@
+package company.employee.util;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+
+/**
+ * Serialize and deserialize throughput of the employee event encodings, the payload size of each encoding
+ * is reported as the secondary {@code bytes} result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventEncodingBenchmark {
+    private static final String TOPIC = "employee.topic";
+
+    @Param({ "JSON", "AVRO" })
+    public EmployeeEventEncoding encoding;
+
+    private EmployeeEvent event;
+    private EmployeeEventSerializer serializer;
+    private EmployeeEventDeserializer deserializer;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        employeeDto.setEmployeeId(UUID.randomUUID());
+        event = new EmployeeEvent(EventType.UPDATED, employeeDto);
+        serializer = new EmployeeEventSerializer(encoding);
+        deserializer = new EmployeeEventDeserializer();
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize(final PayloadSize payloadSize) {
+        byte[] serialized = serializer.serialize(TOPIC, event);
+        payloadSize.bytes = serialized.length;
+        return serialized;
+    }
+
+    @Benchmark
+    public EmployeeEvent deserialize(final PayloadSize payloadSize) {
+        payloadSize.bytes = payload.length;
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+
+    /**
+     * The size of the event payload, the same for every invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+}
@@ -0,0 +1,56 @@
+package company.employee.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+
+/**
+ * Cost of building an employee event and turning it into the Kafka record value, as done by
+ * {@link EventPublisher#publishEmployeeEvent} and the configured producer value serializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPayloadBenchmark {
+    private static final String TOPIC = "employee.topic";
+
+    private EmployeeDto employeeDto;
+    private EmployeeEventSerializer serializer;
+
+    @Setup
+    public void setUp() {
+        employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        serializer = new EmployeeEventSerializer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+    }
+
+    @Benchmark
+    public EmployeeEvent createEvent() {
+        return EventPublisher.createEvent(EventType.UPDATED, employeeDto);
+    }
+
+    @Benchmark
+    public byte[] createAndSerializeEvent() {
+        return serializer.serialize(TOPIC, EventPublisher.createEvent(EventType.UPDATED, employeeDto));
+    }
+}
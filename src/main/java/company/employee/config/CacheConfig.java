@@ -0,0 +1,40 @@
+package company.employee.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import company.employee.util.VersionedEmployeeCache;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String EMPLOYEES_CACHE = "employees";
+
+    @Value("${app.cache.employees.spec}")
+    private String employeesCacheSpec;
+
+    /**
+     * Puts and evictions issued inside a transaction are applied after the commit, so a rolled back write
+     * never reaches the cache. A put never replaces a later version of an employee.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(EMPLOYEES_CACHE) {
+            @Override
+            protected Cache adaptCaffeineCache(
+                    final String name,
+                    final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new VersionedEmployeeCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setCacheSpecification(employeesCacheSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,46 @@
+package company.employee.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import company.employee.dto.EmployeeDto;
+
+@Configuration
+public class JacksonConfig {
+    /**
+     * Id of the property filter of {@link EmployeeDto}, a response can replace it to write selected fields only.
+     */
+    public static final String EMPLOYEE_FIELDS_FILTER = "employeeFields";
+
+    /**
+     * Replaces the reflective getter and setter calls of the bean serializers and deserializers with
+     * generated lambdas, picked up by the object mapper Spring Boot builds for the message converters.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Attaches the fields filter to {@link EmployeeDto} for the object mapper of the message converters only,
+     * by default it writes all fields. Other object mappers, like the one of the event serializer, are not
+     * affected.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer employeeFieldsFilterCustomizer() {
+        return builder -> builder.mixIn(EmployeeDto.class, EmployeeFieldsFilterMixin.class)
+                .filters(new SimpleFilterProvider()
+                        .addFilter(EMPLOYEE_FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(EMPLOYEE_FIELDS_FILTER)
+    private interface EmployeeFieldsFilterMixin {
+    }
+}
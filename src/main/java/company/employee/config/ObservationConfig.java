@@ -0,0 +1,55 @@
+package company.employee.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import company.employee.util.FileSpanExporter;
+import company.employee.util.RecentSpansExporter;
+import company.employee.util.RepositoryTracingAspect;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import io.micrometer.tracing.Tracer;
+
+@Configuration
+public class ObservationConfig {
+
+    /**
+     * Turns methods and classes annotated with {@link io.micrometer.observation.annotation.Observed} into
+     * observations, recorded as timers tagged with the class and the method and as spans of the current trace.
+     */
+    @Bean
+    public ObservedAspect observedAspect(final ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    @Bean
+    public RepositoryTracingAspect repositoryTracingAspect(final ObjectProvider<Tracer> tracer) {
+        return new RepositoryTracingAspect(tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+
+    /**
+     * Span exporters are picked up by the OpenTelemetry auto-configuration and receive the sampled spans in
+     * batches.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "memory")
+    public RecentSpansExporter recentSpansExporter(@Value("${app.tracing.memory.capacity}") final int capacity) {
+        return new RecentSpansExporter(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(
+            @Value("${app.tracing.file}") final Path file,
+            final ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(file, objectMapper);
+    }
+}
@@ -1,6 +1,7 @@
 package company.employee.config;
 
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,35 +11,95 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.preauth.AbstractPreAuthenticatedProcessingFilter;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import company.employee.security.ApiKeyAuthenticationFilter;
+import company.employee.security.ApiKeyStore;
+import company.employee.security.RateLimitFilter;
+import company.employee.security.RateLimitFilter.Limits;
+import company.employee.security.RateLimitFilter.Route;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
+    /**
+     * Readable without an API key, the API key filter skips these routes.
+     */
+    private static final String[] PUBLIC_GET_PATHS = {
+            "/employees",
+            "/employees/search",
+            "/employees/search/index",
+            "/employees/{id}",
+            "/api-docs",
+            "/api-docs/**",
+            "/swagger",
+            "/swagger-ui/**",
+            "/actuator/health"
+    };
 
     @Value("${app.http.api-key-header}")
     private String apiKeyRequestHeader;
 
-    @Value("${app.http.api-key}")
-    private String apiKeyValue;
+    @Value("${app.http.rate-limit.enabled}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.http.rate-limit.list.requests-per-second}")
+    private double listRequestsPerSecond;
+
+    @Value("${app.http.rate-limit.list.burst}")
+    private int listBurst;
+
+    @Value("${app.http.rate-limit.list.max-concurrent}")
+    private int listMaxConcurrent;
+
+    @Value("${app.http.rate-limit.item.requests-per-second}")
+    private double itemRequestsPerSecond;
+
+    @Value("${app.http.rate-limit.item.burst}")
+    private int itemBurst;
+
+    @Value("${app.http.rate-limit.item.max-concurrent}")
+    private int itemMaxConcurrent;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, ApiKeyAuthenticationFilter apiKeyAuthFilter)
-            throws Exception {
+    public SecurityFilterChain filterChain(
+            HttpSecurity http,
+            ApiKeyAuthenticationFilter apiKeyAuthFilter,
+            ApiKeyStore apiKeyStore,
+            MeterRegistry meterRegistry) throws Exception {
+        if (rateLimitEnabled) {
+            // rejected requests skip authentication and never reach the database
+            http.addFilterBefore(
+                    new RateLimitFilter(
+                            apiKeyRequestHeader,
+                            apiKeyStore,
+                            Map.of(
+                                    Route.LIST, new Limits(listRequestsPerSecond, listBurst, listMaxConcurrent),
+                                    Route.ITEM, new Limits(itemRequestsPerSecond, itemBurst, itemMaxConcurrent)),
+                            meterRegistry,
+                            System::nanoTime),
+                    AbstractPreAuthenticatedProcessingFilter.class);
+        }
         return http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(
-                        auth -> auth.requestMatchers(HttpMethod.GET, "/employees").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/employees/{id}").permitAll()
+                        auth -> auth.requestMatchers(HttpMethod.GET, PUBLIC_GET_PATHS).permitAll()
+                                .requestMatchers(HttpMethod.POST, "/employees/search/index/rebuild").authenticated()
                                 .requestMatchers(HttpMethod.POST, "/employees").authenticated()
+                                .requestMatchers(HttpMethod.POST, "/employees/batch").authenticated()
+                                .requestMatchers(HttpMethod.PUT, "/employees/batch").authenticated()
+                                .requestMatchers(HttpMethod.DELETE, "/employees/batch").authenticated()
                                 .requestMatchers(HttpMethod.PUT, "/employees/{id}").authenticated()
+                                .requestMatchers(HttpMethod.PATCH, "/employees/{id}").authenticated()
                                 .requestMatchers(HttpMethod.DELETE, "/employees/{id}").authenticated()
-                                .requestMatchers(HttpMethod.GET, "/api-docs").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/api-docs/**").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/swagger").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/swagger-ui/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/actuator/**").authenticated()
                                 .anyRequest().denyAll())
                 .addFilter(apiKeyAuthFilter)
                 .sessionManagement(sesssion -> sesssion.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -47,20 +108,30 @@ public class SecurityConfig {
 
     @Bean
     public ApiKeyAuthenticationFilter apiKeyAuthenticationFilter(AuthenticationManager authenticationManager) {
-        ApiKeyAuthenticationFilter apiKeyAuthFilter = new ApiKeyAuthenticationFilter(apiKeyRequestHeader);
+        ApiKeyAuthenticationFilter apiKeyAuthFilter = new ApiKeyAuthenticationFilter(apiKeyRequestHeader, publicRoutes());
         apiKeyAuthFilter.setAuthenticationManager(authenticationManager);
         return apiKeyAuthFilter;
     }
 
+    /**
+     * The authenticated principal is the name of the key, the key itself is not kept in the security context.
+     */
     @Bean
-    public AuthenticationManager apiKeyAuthenticationManager() {
+    public AuthenticationManager apiKeyAuthenticationManager(ApiKeyStore apiKeyStore) {
         return authentication -> {
             Object principal = authentication.getPrincipal();
-            if (!Objects.equals(apiKeyValue, principal)) {
-                throw new BadCredentialsException("API key missing");
-            }
-            authentication.setAuthenticated(true);
-            return authentication;
+            String keyName = apiKeyStore.findKeyName(principal instanceof String apiKey ? apiKey : null)
+                    .orElseThrow(() -> new BadCredentialsException("invalid API key"));
+            return new PreAuthenticatedAuthenticationToken(keyName, null, AuthorityUtils.NO_AUTHORITIES);
         };
     }
+
+    /**
+     * GET routes readable without an API key.
+     */
+    public static RequestMatcher publicRoutes() {
+        return new OrRequestMatcher(Arrays.stream(PUBLIC_GET_PATHS)
+                .map(path -> (RequestMatcher) AntPathRequestMatcher.antMatcher(HttpMethod.GET, path))
+                .toList());
+    }
 }
@@ -0,0 +1,58 @@
+package company.employee.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import company.employee.util.ObservationScopeInterceptor;
+import company.employee.util.RequestDecompressionFilter;
+import company.employee.util.StatementCountInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private static final String[] EMPLOYEE_ROUTES = { "/employees", "/employees/*" };
+    private static final String[] EMPLOYEE_PATH_PATTERNS = { "/employees", "/employees/**" };
+
+    private final StatementCountInterceptor statementCountInterceptor;
+    private final ObservationScopeInterceptor observationScopeInterceptor;
+
+    @Value("${app.http.compression.max-inflated-request-size}")
+    private DataSize maxInflatedRequestSize;
+
+    public WebConfig(final MeterRegistry meterRegistry, final ObservationRegistry observationRegistry) {
+        this.statementCountInterceptor = new StatementCountInterceptor(meterRegistry);
+        this.observationScopeInterceptor = new ObservationScopeInterceptor(observationRegistry);
+    }
+
+    /**
+     * Registered for the employee routes only, behind the security filter chain, so requests rejected by the
+     * rate limit or the authentication are never inflated.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter() {
+        FilterRegistrationBean<RequestDecompressionFilter> registration = new FilterRegistrationBean<>(
+                new RequestDecompressionFilter(maxInflatedRequestSize.toBytes()));
+        registration.addUrlPatterns(EMPLOYEE_ROUTES);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(statementCountInterceptor).addPathPatterns(EMPLOYEE_PATH_PATTERNS);
+    }
+
+    /**
+     * Streaming responses query the database on the async request executor.
+     */
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(statementCountInterceptor, observationScopeInterceptor);
+    }
+}
@@ -1,83 +1,468 @@
 package company.employee.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import company.employee.dto.BatchItemResultDto;
+import company.employee.dto.EmployeeBatchCreateDto;
+import company.employee.dto.EmployeeBatchDeleteDto;
+import company.employee.dto.EmployeeBatchUpdateDto;
 import company.employee.dto.EmployeeDataDto;
 import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.dto.EmployeePageDto;
+import company.employee.dto.EmployeePatchDto;
 import company.employee.service.EmployeeService;
+import company.employee.service.HobbyDictionary;
+import company.employee.util.WriteExecutor;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 @RestController
 @RequestMapping("/employees")
 public class EmployeeController {
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String FIELDS_PARAMETER = EmployeeFieldsResponseBodyAdvice.FIELDS_PARAMETER;
+    private static final String WRITE_RETRY_AFTER_SECONDS = "1";
+    private static final String DEFAULT_SEARCH_LIMIT = "100";
 
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final WriteExecutor writeExecutor;
+    private final HobbyDictionary hobbyDictionary;
+    private final ObjectWriter employeeWriter;
+
+    public EmployeeController(
+            final EmployeeService employeeService,
+            final ObjectMapper objectMapper,
+            final WriteExecutor writeExecutor,
+            final HobbyDictionary hobbyDictionary) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.writeExecutor = writeExecutor;
+        this.hobbyDictionary = hobbyDictionary;
+        // the serializer of EmployeeDto is resolved once, not for every streamed response;
+        // rows are flushed by the servlet output buffer, not after every employee
+        this.employeeWriter = objectMapper.writerFor(EmployeeDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
 
+    /**
+     * The collection version is checked before the employees are loaded, an unchanged collection is answered
+     * with 304 Not Modified after a single aggregate query.
+     */
     @GetMapping
-    List<EmployeeDto> getAllEmployees() {
-        return employeeService.findAll();
+    ResponseEntity<List<EmployeeDto>> getAllEmployees(
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        String collectionETag = collectionETag();
+        if (request.checkNotModified(collectionETag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(collectionETag)
+                .body(employeeService.findAll(selectedFields));
+    }
+
+    @GetMapping(params = { "limit", "!stream" })
+    ResponseEntity<EmployeePageDto> getEmployeesPage(
+            @RequestParam final int limit,
+            @RequestParam(required = false) final String pageToken,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        return toPageResponse(
+                request,
+                selectedFields,
+                () -> employeeService.findPage(pageToken, limit, selectedFields));
+    }
+
+    @GetMapping(path = "/search", params = "hobby")
+    ResponseEntity<EmployeePageDto> searchEmployeesByHobby(
+            @RequestParam final String hobby,
+            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) final int limit,
+            @RequestParam(required = false) final String pageToken,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        return toPageResponse(
+                request,
+                selectedFields,
+                () -> employeeService.findPageByHobby(hobby, pageToken, limit, selectedFields));
+    }
+
+    @GetMapping(path = "/search", params = "lastNamePrefix")
+    ResponseEntity<EmployeePageDto> searchEmployeesByLastNamePrefix(
+            @RequestParam final String lastNamePrefix,
+            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) final int limit,
+            @RequestParam(required = false) final String pageToken,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        return toPageResponse(
+                request,
+                selectedFields,
+                () -> employeeService.findPageByLastNamePrefix(lastNamePrefix, pageToken, limit, selectedFields));
+    }
+
+    @GetMapping(path = "/search", params = "emailDomain")
+    ResponseEntity<EmployeePageDto> searchEmployeesByEmailDomain(
+            @RequestParam final String emailDomain,
+            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) final int limit,
+            @RequestParam(required = false) final String pageToken,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        return toPageResponse(
+                request,
+                selectedFields,
+                () -> employeeService.findPageByEmailDomain(emailDomain, pageToken, limit, selectedFields));
+    }
+
+    @GetMapping(path = "/search", params = { "birthdayFrom", "birthdayTo" })
+    ResponseEntity<EmployeePageDto> searchEmployeesByBirthday(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate birthdayFrom,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate birthdayTo,
+            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) final int limit,
+            @RequestParam(required = false) final String pageToken,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields,
+            final WebRequest request) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        return toPageResponse(
+                request,
+                selectedFields,
+                () -> employeeService.findPageByBirthdayBetween(
+                        birthdayFrom,
+                        birthdayTo,
+                        pageToken,
+                        limit,
+                        selectedFields));
+    }
+
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamAllEmployeesAsJsonArray(
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        ObjectWriter writer = employeeWriter(selectedFields);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                employeeService.streamAll(selectedFields, employee -> writeValue(writer, generator, employee));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamAllEmployeesAsNdjson(
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields) {
+        Set<EmployeeField> selectedFields = parseFields(fields);
+        ObjectWriter writer = employeeWriter(selectedFields);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                employeeService.streamAll(selectedFields, employee -> {
+                    writeValue(writer, generator, employee);
+                    writeRaw(generator, '\n');
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
     }
 
+    /**
+     * Single employees are served from the cache, selected fields limit only what is written.
+     */
     @GetMapping("/{id}")
-    ResponseEntity<EmployeeDto> getEmployee(@PathVariable final UUID id) {
+    ResponseEntity<EmployeeDto> getEmployee(
+            @PathVariable final UUID id,
+            @RequestParam(name = FIELDS_PARAMETER, required = false) final String fields) {
+        parseFields(fields);
         Optional<EmployeeDto> employee = employeeService.find(id);
         if (employee.isEmpty()) {
             log.info("employee not found, id {}", id);
             return ResponseEntity.notFound().build();
         } else {
-            return ResponseEntity.ok(employee.get());
+            // answered with 304 Not Modified without serializing the body if the ETag matches If-None-Match
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (employee.get().getVersion() != null) {
+                response.eTag(employee.get().getVersion().toString());
+            }
+            return response.body(employee.get());
         }
     }
 
     @PostMapping
-    ResponseEntity<EmployeeDto> createEmployee(@Valid @RequestBody final EmployeeDataDto employee) {
-        Optional<EmployeeDto> createdEmployee = employeeService.create(employee);
-        if (createdEmployee.isEmpty()) {
-            log.info("error creating employee: {}", employee);
-            return ResponseEntity.badRequest().build();
-        } else {
-            log.info("created employee: {}", createdEmployee);
-            return ResponseEntity.ok(createdEmployee.get());
-        }
+    CompletableFuture<ResponseEntity<EmployeeDto>> createEmployee(@Valid @RequestBody final EmployeeDataDto employee) {
+        return writeExecutor.supply(() -> {
+            internHobbies(Stream.of(employee.getHobbies()));
+            Optional<EmployeeDto> createdEmployee = employeeService.create(employee);
+            if (createdEmployee.isEmpty()) {
+                log.info("error creating employee: {}", employee);
+                return ResponseEntity.badRequest().build();
+            } else {
+                log.info("created employee: {}", createdEmployee);
+                return ResponseEntity.ok(createdEmployee.get());
+            }
+        });
     }
 
+    /**
+     * An {@code If-Match} header with the ETag of the employee makes the update conditional, it is rejected
+     * with 409 Conflict if the employee was changed in the meantime.
+     */
     @PutMapping("/{id}")
-    ResponseEntity<EmployeeDto> updateEmployee(
+    CompletableFuture<ResponseEntity<EmployeeDto>> updateEmployee(
             @PathVariable final UUID id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
             @Valid @RequestBody final EmployeeDataDto employee) {
-        Optional<EmployeeDto> updatedEmployee = employeeService.update(id, employee);
+        Long expectedVersion = parseVersion(ifMatch);
+        return writeExecutor.supply(() -> {
+            internHobbies(Stream.of(employee.getHobbies()));
+            return toUpdateResponse(id, employeeService.update(id, employee, expectedVersion));
+        });
+    }
+
+    @PatchMapping("/{id}")
+    CompletableFuture<ResponseEntity<EmployeeDto>> patchEmployee(
+            @PathVariable final UUID id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+            @Valid @RequestBody final EmployeePatchDto employeePatch) {
+        Long expectedVersion = parseVersion(ifMatch);
+        return writeExecutor.supply(() -> {
+            internHobbies(Stream.of(employeePatch.getHobbies()));
+            return toUpdateResponse(id, employeeService.patch(id, employeePatch, expectedVersion));
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    CompletableFuture<ResponseEntity<?>> deleteEmployee(@PathVariable final UUID id) {
+        return writeExecutor.supply(() -> {
+            Optional<EmployeeDto> deletedEmployee = employeeService.delete(id);
+            if (deletedEmployee.isEmpty()) {
+                log.info("employee not found, id {}", id);
+                return ResponseEntity.notFound().build();
+            } else {
+                return ResponseEntity.ok().build();
+            }
+        });
+    }
+
+    @PostMapping("/batch")
+    CompletableFuture<ResponseEntity<List<BatchItemResultDto>>> createEmployees(
+            @Valid @RequestBody final EmployeeBatchCreateDto batch) {
+        return writeExecutor.supply(() -> {
+            internHobbies(batch.getEmployees().stream().map(EmployeeDataDto::getHobbies));
+            return ResponseEntity.ok(employeeService.createAll(batch.getEmployees()));
+        });
+    }
+
+    @PutMapping("/batch")
+    CompletableFuture<ResponseEntity<List<BatchItemResultDto>>> updateEmployees(
+            @Valid @RequestBody final EmployeeBatchUpdateDto batch) {
+        return writeExecutor.supply(() -> {
+            internHobbies(batch.getEmployees().stream().map(EmployeeDto::getHobbies));
+            return ResponseEntity.ok(employeeService.updateAll(batch.getEmployees()));
+        });
+    }
+
+    @DeleteMapping("/batch")
+    CompletableFuture<ResponseEntity<List<BatchItemResultDto>>> deleteEmployees(
+            @Valid @RequestBody final EmployeeBatchDeleteDto batch) {
+        return writeExecutor.supply(() -> ResponseEntity.ok(employeeService.deleteAll(batch.getEmployeeIds())));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<?> handleVersionConflict(final OptimisticLockingFailureException e) {
+        log.info("version conflict: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * The write executor queue is full, the client should retry later.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    ResponseEntity<?> handleWriteRejected(final TaskRejectedException e) {
+        log.warn("write rejected, executor queue is full");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, WRITE_RETRY_AFTER_SECONDS)
+                .build();
+    }
+
+    /**
+     * New hobbies are created before the write transaction begins, so a write never inserts dictionary entries
+     * while holding its own connection.
+     */
+    private void internHobbies(final Stream<Set<String>> hobbies) {
+        List<String> hobbyNames = hobbies
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .distinct()
+                .toList();
+        if (!hobbyNames.isEmpty()) {
+            hobbyDictionary.internAll(hobbyNames);
+        }
+    }
+
+    /**
+     * Pages carry an ETag of the returned page only, so a page costs no query over the whole collection.
+     * An empty page means an invalid page token or invalid criteria.
+     */
+    private ResponseEntity<EmployeePageDto> toPageResponse(
+            final WebRequest request,
+            final Set<EmployeeField> fields,
+            final Supplier<Optional<EmployeePageDto>> pageQuery) {
+        Optional<EmployeePageDto> page = pageQuery.get();
+        if (page.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<String> pageETag = pageETag(page.get(), fields);
+        if (pageETag.isEmpty()) {
+            return ResponseEntity.ok(page.get());
+        }
+        if (request.checkNotModified(pageETag.get())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(pageETag.get())
+                .body(page.get());
+    }
+
+    /**
+     * Weak ETag of the ids and versions on the page, the next page token and the selected fields. Pages without
+     * ids or versions, selected away with {@code fields}, carry no ETag.
+     */
+    private static Optional<String> pageETag(final EmployeePageDto page, final Set<EmployeeField> fields) {
+        if (!fields.contains(EmployeeField.EMPLOYEE_ID) || !fields.contains(EmployeeField.VERSION)) {
+            return Optional.empty();
+        }
+        StringBuilder content = new StringBuilder();
+        for (EmployeeDto employee : page.getEmployees()) {
+            content.append(employee.getEmployeeId()).append(':').append(employee.getVersion()).append(',');
+        }
+        content.append(page.getNextPageToken());
+        for (EmployeeField field : EmployeeField.values()) {
+            if (fields.contains(field)) {
+                content.append(',').append(field.name());
+            }
+        }
+        String hash = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+        return Optional.of("W/\"" + hash + "\"");
+    }
+
+    /**
+     * Collection responses are large enough to be compressed, which Tomcat does only for responses with a weak
+     * ETag: the compressed and the plain body are equivalent but not byte for byte identical.
+     */
+    private String collectionETag() {
+        return "W/\"" + employeeService.findCollectionVersion() + "\"";
+    }
+
+    private static ResponseEntity<EmployeeDto> toUpdateResponse(
+            final UUID id,
+            final Optional<EmployeeDto> updatedEmployee) {
         if (updatedEmployee.isEmpty()) {
             log.info("employee not found, id {}", id);
             return ResponseEntity.notFound().build();
         } else {
-            return ResponseEntity.ok(updatedEmployee.get());
+            return ResponseEntity.ok()
+                    .eTag(updatedEmployee.get().getVersion().toString())
+                    .body(updatedEmployee.get());
         }
     }
 
-    @DeleteMapping("/{id}")
-    ResponseEntity<?> deleteEmployee(@PathVariable final UUID id) {
-        Optional<EmployeeDto> deletedEmployee = employeeService.delete(id);
-        if (deletedEmployee.isEmpty()) {
-            log.info("employee not found, id {}", id);
-            return ResponseEntity.notFound().build();
-        } else {
-            return ResponseEntity.ok().build();
+    /**
+     * @param fields comma separated names of the employee fields to return, {@code null} for all fields
+     */
+    private static Set<EmployeeField> parseFields(final String fields) {
+        return EmployeeField.parse(fields)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid fields: " + fields));
+    }
+
+    /**
+     * The expected version from an {@code If-Match} header holding a single ETag, {@code null} if the header
+     * is missing or {@code *}.
+     */
+    private static Long parseVersion(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/")) {
+            eTag = eTag.substring(2);
+        }
+        try {
+            return Long.valueOf(eTag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private ObjectWriter employeeWriter(final Set<EmployeeField> fields) {
+        return fields.equals(EmployeeField.ALL)
+                ? employeeWriter
+                : employeeWriter.with(EmployeeFieldsResponseBodyAdvice.fieldsFilter(fields));
+    }
+
+    private static void writeValue(final ObjectWriter writer, final JsonGenerator generator, final EmployeeDto employee) {
+        try {
+            writer.writeValue(generator, employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException("error writing employee to the response stream", e);
+        }
+    }
+
+    private static void writeRaw(final JsonGenerator generator, final char c) {
+        try {
+            generator.writeRaw(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException("error writing employee to the response stream", e);
         }
     }
 }
@@ -0,0 +1,50 @@
+package company.employee.controller;
+
+import java.util.Set;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import company.employee.config.JacksonConfig;
+import company.employee.dto.EmployeeField;
+
+/**
+ * Writes only the fields of the employees selected by the {@value #FIELDS_PARAMETER} request parameter, in
+ * single employees as well as in lists and pages. The parameter is validated by the controller.
+ */
+@ControllerAdvice(assignableTypes = EmployeeController.class)
+public class EmployeeFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    public static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(
+            final MappingJacksonValue bodyContainer,
+            final MediaType contentType,
+            final MethodParameter returnType,
+            final ServerHttpRequest request,
+            final ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            EmployeeField.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER))
+                    .filter(fields -> !fields.equals(EmployeeField.ALL))
+                    .ifPresent(fields -> bodyContainer.setFilters(fieldsFilter(fields)));
+        }
+    }
+
+    public static FilterProvider fieldsFilter(final Set<EmployeeField> fields) {
+        return new SimpleFilterProvider().addFilter(
+                JacksonConfig.EMPLOYEE_FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.stream()
+                        .map(EmployeeField::getPropertyName)
+                        .toArray(String[]::new)));
+    }
+}
@@ -0,0 +1,71 @@
+package company.employee.controller;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import company.employee.dto.EmployeePageDto;
+import company.employee.service.EmployeeSearchIndex;
+import company.employee.service.EmployeeService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Combined searches answered by the in-memory {@link EmployeeSearchIndex}, only the employees of the
+ * returned page are read from the database.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/employees/search/index")
+@ConditionalOnProperty(name = "app.search-index.enabled", havingValue = "true")
+public class EmployeeSearchIndexController {
+    private static final String DEFAULT_SEARCH_LIMIT = "100";
+
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeService employeeService;
+
+    /**
+     * All given criteria have to match, at least one is required. Repeated {@code hobby} parameters match
+     * employees having any of the hobbies.
+     */
+    @GetMapping
+    ResponseEntity<EmployeePageDto> searchEmployees(
+            @RequestParam(required = false) final Set<String> hobby,
+            @RequestParam(required = false) final String lastNamePrefix,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate birthdayFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate birthdayTo,
+            @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) final int limit,
+            @RequestParam(required = false) final String pageToken) {
+        if (hobby == null && lastNamePrefix == null && birthdayFrom == null && birthdayTo == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        EmployeeSearchIndex.Criteria criteria = new EmployeeSearchIndex.Criteria(
+                hobby,
+                lastNamePrefix,
+                birthdayFrom,
+                birthdayTo);
+        int pageSize = Math.max(1, Math.min(limit, EmployeeService.MAX_PAGE_SIZE));
+        Optional<EmployeeSearchIndex.Page> page = searchIndex.search(criteria, pageToken, pageSize);
+        if (page.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        } else {
+            return ResponseEntity.ok(new EmployeePageDto(
+                    employeeService.findAll(page.get().employeeIds()),
+                    page.get().nextPageToken()));
+        }
+    }
+
+    @PostMapping("/rebuild")
+    ResponseEntity<?> rebuildIndex() {
+        searchIndex.rebuild();
+        return ResponseEntity.ok().build();
+    }
+}
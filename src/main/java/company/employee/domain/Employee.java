@@ -1,41 +1,66 @@
 package company.employee.domain;
 
-import java.sql.Types;
 import java.time.LocalDate;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
-import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "employees")
+@DynamicUpdate
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = "uk_employees_external_id", columnNames = "external_id"),
+        indexes = {
+                @Index(name = "idx_employees_last_name_id", columnList = "last_name, id"),
+                @Index(name = "idx_employees_email_domain", columnList = "email_domain"),
+                @Index(name = "idx_employees_birthday_id", columnList = "birthday, id")
+        })
 public class Employee {
+    /**
+     * Number of ids reserved with a single sequence round-trip.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    /**
+     * Stored with the JDBC type set by {@code hibernate.type.preferred_uuid_jdbc_type}, which defaults to
+     * UUID and maps to BINARY(16) on MySQL.
+     */
     @NotNull
-    @JdbcTypeCode(Types.VARCHAR)
-    @Column(name = "external_id", unique = true)
+    @Column(name = "external_id", nullable = false)
     private UUID employeeId;
 
     @NotEmpty
@@ -49,11 +74,52 @@ public class Employee {
     @Column(unique = true)
     private String email;
 
+    /**
+     * Lower case domain part of the email, kept in its own indexed column so searches by domain don't have
+     * to scan all emails. Set together with the email.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_domain")
+    private String emailDomain;
+
     @NotNull
     @Past
     private LocalDate birthday;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "employee_id", nullable = false)
+    /**
+     * Incremented with every update, used for optimistic locking and as the ETag of the employee. The column
+     * default lets {@code ddl-auto} add the column to an existing table.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Entries of the shared hobby dictionary, only the rows of the join table belong to the employee.
+     */
+    @BatchSize(size = 100)
+    @ManyToMany
+    @JoinTable(
+            name = "employee_hobbies",
+            joinColumns = @JoinColumn(name = "employee_id"),
+            inverseJoinColumns = @JoinColumn(name = "hobby_id"),
+            indexes = @Index(name = "idx_employee_hobbies_hobby_id", columnList = "hobby_id, employee_id"))
     private Set<Hobby> hobbies;
+
+    public void setEmail(final String email) {
+        this.email = email;
+        this.emailDomain = toEmailDomain(email);
+    }
+
+    /**
+     * @return the lower case part after the last {@code @}, {@code null} if there is none
+     */
+    public static String toEmailDomain(final String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,24 +1,63 @@
 package company.employee.domain;
 
+import java.nio.charset.StandardCharsets;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
+/**
+ * Entry of the hobby dictionary, every distinct hobby is stored once and shared by all employees having it.
+ */
 @Entity
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
-@Table(name = "hobbies")
+@Table(name = "hobby_dictionary",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hobby_dictionary_hobby_key", columnNames = "hobby_key"))
 public class Hobby {
+    /**
+     * Up to 4 bytes per character of a 255 characters hobby.
+     */
+    private static final int MAX_KEY_LENGTH = 1020;
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hobbies_seq")
+    @SequenceGenerator(name = "hobbies_seq", sequenceName = "hobbies_seq", allocationSize = Employee.ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull
+    @Column(nullable = false)
     private String hobby;
+
+    /**
+     * UTF-8 bytes of the hobby, unique with a binary comparison. A unique index on the hobby itself would
+     * follow the case and accent insensitive default collation of MySQL and treat "Chess" and "chess" as one hobby.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "hobby_key", nullable = false, length = MAX_KEY_LENGTH)
+    private byte[] hobbyKey;
+
+    public Hobby(final Long id, final String hobby) {
+        this.id = id;
+        setHobby(hobby);
+    }
+
+    public void setHobby(final String hobby) {
+        this.hobby = hobby;
+        this.hobbyKey = toKey(hobby);
+    }
+
+    public static byte[] toKey(final String hobby) {
+        return hobby == null ? null : hobby.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,64 @@
+package company.employee.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import company.employee.util.EventPublisher.EventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Employee event written in the transaction of the change it describes and sent to Kafka by
+ * {@link company.employee.util.OutboxRelay} once committed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "employee_outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_outbox_seq")
+    @SequenceGenerator(name = "employee_outbox_seq", sequenceName = "employee_outbox_seq", allocationSize = Employee.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EventType eventType;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID employeeId;
+
+    /**
+     * The employee as JSON.
+     */
+    @NotNull
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    /**
+     * Trace context headers of the request that published the event as JSON, the relayed record continues its
+     * trace. Null for events published outside of a trace.
+     */
+    @Column(length = 1024)
+    private String traceContext;
+}
@@ -0,0 +1,28 @@
+package company.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a batch request, {@code index} is the position of the item in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private int index;
+    private Status status;
+    private EmployeeDto employee;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        DUPLICATE_EMAIL,
+        NOT_FOUND,
+        VERSION_CONFLICT
+    }
+}
@@ -0,0 +1,16 @@
+package company.employee.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class EmployeeBatchCreateDto {
+    @NotEmpty
+    @Size(max = BatchItemResultDto.MAX_BATCH_SIZE)
+    private List<@Valid @NotNull EmployeeDataDto> employees;
+}
@@ -29,4 +29,5 @@ public class EmployeeDto {
     private LocalDate birthday;
     @NotNull
     private Set<String> hobbies;
+    private Long version;
 }
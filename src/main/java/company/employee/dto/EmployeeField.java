@@ -0,0 +1,64 @@
+package company.employee.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Properties of {@link EmployeeDto} a client can select with the {@code fields} parameter. The property names
+ * are the same in the DTO and in the {@code Employee} entity.
+ */
+public enum EmployeeField {
+    EMPLOYEE_ID("employeeId"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    BIRTHDAY("birthday"),
+    HOBBIES("hobbies"),
+    VERSION("version");
+
+    public static final Set<EmployeeField> ALL = Collections.unmodifiableSet(EnumSet.allOf(EmployeeField.class));
+
+    private final String propertyName;
+
+    EmployeeField(final String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * @param fields comma separated property names, {@code null} for all fields
+     * @return the fields, empty if a name is unknown or no name is given
+     */
+    public static Optional<Set<EmployeeField>> parse(final String fields) {
+        if (fields == null) {
+            return Optional.of(ALL);
+        }
+        Set<EmployeeField> parsedFields = EnumSet.noneOf(EmployeeField.class);
+        for (String propertyName : fields.split(",")) {
+            Optional<EmployeeField> field = ofPropertyName(propertyName.strip());
+            if (field.isEmpty()) {
+                return Optional.empty();
+            }
+            parsedFields.add(field.get());
+        }
+        // only separators, like "fields=,"
+        if (parsedFields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Collections.unmodifiableSet(parsedFields));
+    }
+
+    private static Optional<EmployeeField> ofPropertyName(final String propertyName) {
+        for (EmployeeField field : values()) {
+            if (field.propertyName.equals(propertyName)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,27 @@
+package company.employee.dto;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * Partial update of an employee, fields left {@code null} are not changed.
+ */
+@Data
+public class EmployeePatchDto {
+    private static final String NOT_BLANK = ".*\\S.*";
+
+    @Pattern(regexp = NOT_BLANK)
+    private String firstName;
+    @Pattern(regexp = NOT_BLANK)
+    private String lastName;
+    @Email
+    private String email;
+    @Past
+    private LocalDate birthday;
+    private Set<String> hobbies;
+}
@@ -0,0 +1,55 @@
+package company.employee.listener;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import company.employee.config.CacheConfig;
+import company.employee.dto.EmployeeDto;
+import company.employee.service.EmployeeSearchIndex;
+import company.employee.util.EmployeeEvent;
+import company.employee.util.VersionedEmployeeCache;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies employee events published by any instance to the local employee cache, so writes handled by
+ * other instances are not served stale from this one. Every instance consumes the topic with its own
+ * consumer group and starts from the latest offset, its cache is empty at startup anyway. The optional
+ * search index is updated the same way, it is built from the database at startup.
+ */
+@Slf4j
+@Component
+public class EmployeeEventListener {
+    private final Cache employeeCache;
+    private final ObjectProvider<EmployeeSearchIndex> searchIndex;
+
+    public EmployeeEventListener(
+            final CacheManager cacheManager,
+            final ObjectProvider<EmployeeSearchIndex> searchIndex) {
+        this.employeeCache = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        this.searchIndex = searchIndex;
+    }
+
+    @KafkaListener(
+            topics = "${topics.employee-events}",
+            groupId = "${app.cache.employees.sync.group-id}",
+            autoStartup = "${app.cache.employees.sync.enabled}",
+            properties = "auto.offset.reset=latest")
+    public void onEmployeeEvent(final EmployeeEvent event) {
+        EmployeeDto employeeDto = event.getEmployeeData();
+        log.debug("applying event {} for employee {} to the cache", event.getEventType(), employeeDto.getEmployeeId());
+
+        switch (event.getEventType()) {
+            // the cache keeps a later version put by the write itself and ignores updates arriving after the delete
+            case CREATED, UPDATED -> employeeCache.put(employeeDto.getEmployeeId(), employeeDto);
+            case DELETED -> employeeCache.put(
+                    employeeDto.getEmployeeId(),
+                    new VersionedEmployeeCache.Tombstone(employeeDto.getVersion()));
+        }
+        searchIndex.ifAvailable(index -> index.apply(event.getEventType(), List.of(employeeDto)));
+    }
+}
@@ -0,0 +1,184 @@
+package company.employee.mapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import company.employee.domain.Employee;
+import company.employee.domain.Hobby;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeePatchDto;
+import company.employee.service.HobbyDictionary;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hand written mappings between the employee entity and its DTOs, equivalent to the ModelMapper
+ * configuration it replaced, kept in the test sources as {@code ModelMapperConfig}, without reflective property
+ * matching and intermediate collection copies. Hobbies are resolved to the shared entries of the
+ * {@link HobbyDictionary}.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeMapper {
+    private final HobbyDictionary hobbyDictionary;
+
+    public EmployeeDto toEmployeeDto(final Employee employee) {
+        EmployeeDto employeeDto = new EmployeeDto();
+        employeeDto.setEmployeeId(employee.getEmployeeId());
+        employeeDto.setFirstName(employee.getFirstName());
+        employeeDto.setLastName(employee.getLastName());
+        employeeDto.setEmail(employee.getEmail());
+        employeeDto.setBirthday(employee.getBirthday());
+        employeeDto.setHobbies(toHobbyNames(employee.getHobbies()));
+        employeeDto.setVersion(employee.getVersion());
+        return employeeDto;
+    }
+
+    public EmployeeDataDto toEmployeeDataDto(final Employee employee) {
+        EmployeeDataDto employeeDataDto = new EmployeeDataDto();
+        employeeDataDto.setFirstName(employee.getFirstName());
+        employeeDataDto.setLastName(employee.getLastName());
+        employeeDataDto.setEmail(employee.getEmail());
+        employeeDataDto.setBirthday(employee.getBirthday());
+        employeeDataDto.setHobbies(toHobbyNames(employee.getHobbies()));
+        return employeeDataDto;
+    }
+
+    /**
+     * Maps the employee data to a new entity, the internal and the external ids and the version are left unset.
+     */
+    public Employee toEmployee(final EmployeeDataDto employeeDataDto) {
+        Employee employee = new Employee();
+        employee.setFirstName(employeeDataDto.getFirstName());
+        employee.setLastName(employeeDataDto.getLastName());
+        employee.setEmail(employeeDataDto.getEmail());
+        employee.setBirthday(employeeDataDto.getBirthday());
+        employee.setHobbies(toHobbies(employeeDataDto.getHobbies()));
+        return employee;
+    }
+
+    /**
+     * Same as {@link #toEmployee(EmployeeDataDto)} for every element, the hobbies of all employees are resolved
+     * with a single dictionary lookup.
+     */
+    public List<Employee> toEmployees(final Collection<EmployeeDataDto> employeeDataDtos) {
+        hobbyDictionary.internAll(employeeDataDtos.stream()
+                .map(EmployeeDataDto::getHobbies)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .distinct()
+                .toList());
+        List<Employee> employees = new ArrayList<>(employeeDataDtos.size());
+        for (EmployeeDataDto employeeDataDto : employeeDataDtos) {
+            employees.add(toEmployee(employeeDataDto));
+        }
+        return employees;
+    }
+
+    /**
+     * Maps the employee to a new entity, the internal id is left unset.
+     */
+    public Employee toEmployee(final EmployeeDto employeeDto) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeDto.getEmployeeId());
+        employee.setFirstName(employeeDto.getFirstName());
+        employee.setLastName(employeeDto.getLastName());
+        employee.setEmail(employeeDto.getEmail());
+        employee.setBirthday(employeeDto.getBirthday());
+        employee.setHobbies(toHobbies(employeeDto.getHobbies()));
+        employee.setVersion(employeeDto.getVersion());
+        return employee;
+    }
+
+    /**
+     * Applies the employee data to the persisted entity in place. Unchanged values are left untouched, so
+     * Hibernate updates only the changed columns and inserts and deletes only the added and removed hobbies.
+     */
+    public void updateEmployee(final Employee employee, final EmployeeDataDto employeeDataDto) {
+        employee.setFirstName(employeeDataDto.getFirstName());
+        employee.setLastName(employeeDataDto.getLastName());
+        employee.setEmail(employeeDataDto.getEmail());
+        employee.setBirthday(employeeDataDto.getBirthday());
+        updateHobbies(employee, employeeDataDto.getHobbies());
+    }
+
+    /**
+     * Same as {@link #updateEmployee(Employee, EmployeeDataDto)}, the ids and the version of the DTO are ignored.
+     */
+    public void updateEmployee(final Employee employee, final EmployeeDto employeeDto) {
+        employee.setFirstName(employeeDto.getFirstName());
+        employee.setLastName(employeeDto.getLastName());
+        employee.setEmail(employeeDto.getEmail());
+        employee.setBirthday(employeeDto.getBirthday());
+        updateHobbies(employee, employeeDto.getHobbies());
+    }
+
+    /**
+     * Applies the non-null fields of the patch to the persisted entity in place.
+     */
+    public void patchEmployee(final Employee employee, final EmployeePatchDto employeePatchDto) {
+        if (employeePatchDto.getFirstName() != null) {
+            employee.setFirstName(employeePatchDto.getFirstName());
+        }
+        if (employeePatchDto.getLastName() != null) {
+            employee.setLastName(employeePatchDto.getLastName());
+        }
+        if (employeePatchDto.getEmail() != null) {
+            employee.setEmail(employeePatchDto.getEmail());
+        }
+        if (employeePatchDto.getBirthday() != null) {
+            employee.setBirthday(employeePatchDto.getBirthday());
+        }
+        if (employeePatchDto.getHobbies() != null) {
+            updateHobbies(employee, employeePatchDto.getHobbies());
+        }
+    }
+
+    private void updateHobbies(final Employee employee, final Set<String> hobbyNames) {
+        if (employee.getHobbies() == null) {
+            employee.setHobbies(toHobbies(hobbyNames));
+            return;
+        }
+        Set<String> newHobbyNames = hobbyNames == null ? Set.of() : hobbyNames;
+        employee.getHobbies().removeIf(hobby -> !newHobbyNames.contains(hobby.getHobby()));
+        Set<String> currentHobbyNames = toHobbyNames(employee.getHobbies());
+        List<String> addedHobbyNames = newHobbyNames.stream()
+                .filter(hobbyName -> !currentHobbyNames.contains(hobbyName))
+                .toList();
+        if (!addedHobbyNames.isEmpty()) {
+            employee.getHobbies().addAll(hobbyDictionary.internAll(addedHobbyNames).values());
+        }
+    }
+
+    private static Set<String> toHobbyNames(final Set<Hobby> hobbies) {
+        if (hobbies == null) {
+            return null;
+        }
+        Set<String> hobbyNames = newHashSet(hobbies.size());
+        for (Hobby hobby : hobbies) {
+            hobbyNames.add(hobby.getHobby());
+        }
+        return hobbyNames;
+    }
+
+    private Set<Hobby> toHobbies(final Set<String> hobbyNames) {
+        if (hobbyNames == null) {
+            return null;
+        }
+        Map<String, Hobby> internedHobbies = hobbyDictionary.internAll(hobbyNames);
+        Set<Hobby> hobbies = newHashSet(internedHobbies.size());
+        hobbies.addAll(internedHobbies.values());
+        return hobbies;
+    }
+
+    private static <T> Set<T> newHashSet(final int expectedSize) {
+        return new HashSet<>((int) Math.ceil(expectedSize / 0.75));
+    }
+}
@@ -0,0 +1,29 @@
+package company.employee.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+
+/**
+ * Reads of selected employee columns into DTOs, without loading entities. The selected fields must not
+ * include {@link EmployeeField#HOBBIES}, the hobbies join is never part of a projection; employees with
+ * hobbies are read with the entity queries of {@link EmployeeRepository}. Fields that are not selected stay
+ * {@code null}.
+ */
+public interface EmployeeProjectionRepository {
+
+    List<EmployeeDto> findAllProjected(Set<EmployeeField> fields);
+
+    /**
+     * @return the employees with the given internal ids, in the order of the ids
+     */
+    List<EmployeeDto> findProjectedByIdIn(List<Long> ids, Set<EmployeeField> fields);
+
+    /**
+     * Scrolls over all employees in id order, must be consumed inside a transaction and closed afterwards.
+     */
+    Stream<EmployeeDto> streamAllProjected(Set<EmployeeField> fields);
+}
@@ -0,0 +1,118 @@
+package company.employee.repository;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds the select clause from the selected fields, the statements read only the selected columns of the
+ * employees table.
+ */
+@RequiredArgsConstructor
+class EmployeeProjectionRepositoryImpl implements EmployeeProjectionRepository {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<EmployeeDto> findAllProjected(final Set<EmployeeField> fields) {
+        List<EmployeeField> selectedFields = selectedFields(fields);
+        return createQuery(selectedFields).getResultStream()
+                .map(tuple -> toEmployeeDto(tuple, selectedFields))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The internal id is selected in addition to the selected fields, to return the employees in the order of
+     * the given ids.
+     */
+    @Override
+    public List<EmployeeDto> findProjectedByIdIn(final List<Long> ids, final Set<EmployeeField> fields) {
+        List<EmployeeField> selectedFields = selectedFields(fields);
+        Map<Long, EmployeeDto> employees = new HashMap<>();
+        entityManager.createQuery(
+                        "select e.id, " + selectClause(selectedFields) + " from Employee e where e.id in :ids",
+                        Tuple.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .forEach(tuple -> employees.put(tuple.get(0, Long.class), toEmployeeDto(tuple, selectedFields, 1)));
+        return ids.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<EmployeeDto> streamAllProjected(final Set<EmployeeField> fields) {
+        List<EmployeeField> selectedFields = selectedFields(fields);
+        return createQuery(selectedFields)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream()
+                .map(tuple -> toEmployeeDto(tuple, selectedFields));
+    }
+
+    private TypedQuery<Tuple> createQuery(final List<EmployeeField> selectedFields) {
+        return entityManager.createQuery(
+                "select " + selectClause(selectedFields) + " from Employee e order by e.id",
+                Tuple.class);
+    }
+
+    private static String selectClause(final List<EmployeeField> selectedFields) {
+        return selectedFields.stream()
+                .map(field -> "e." + field.getPropertyName())
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * @return the fields in the order of the select clause
+     */
+    private static List<EmployeeField> selectedFields(final Set<EmployeeField> fields) {
+        if (fields.isEmpty() || fields.contains(EmployeeField.HOBBIES)) {
+            throw new IllegalArgumentException("projection needs columns of the employees table only: " + fields);
+        }
+        return new ArrayList<>(fields);
+    }
+
+    private static EmployeeDto toEmployeeDto(final Tuple tuple, final List<EmployeeField> selectedFields) {
+        return toEmployeeDto(tuple, selectedFields, 0);
+    }
+
+    /**
+     * @param offset index of the first selected field in the tuple
+     */
+    private static EmployeeDto toEmployeeDto(
+            final Tuple tuple,
+            final List<EmployeeField> selectedFields,
+            final int offset) {
+        EmployeeDto employeeDto = new EmployeeDto();
+        for (int i = 0; i < selectedFields.size(); i++) {
+            Object value = tuple.get(offset + i);
+            switch (selectedFields.get(i)) {
+                case EMPLOYEE_ID -> employeeDto.setEmployeeId((UUID) value);
+                case FIRST_NAME -> employeeDto.setFirstName((String) value);
+                case LAST_NAME -> employeeDto.setLastName((String) value);
+                case EMAIL -> employeeDto.setEmail((String) value);
+                case BIRTHDAY -> employeeDto.setBirthday((LocalDate) value);
+                case VERSION -> employeeDto.setVersion((Long) value);
+                case HOBBIES -> throw new IllegalArgumentException("hobbies are not part of a projection");
+            }
+        }
+        return employeeDto;
+    }
+}
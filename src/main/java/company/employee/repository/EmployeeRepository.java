@@ -1,18 +1,151 @@
 package company.employee.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import company.employee.domain.Employee;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    long deleteByEmployeeId(@NotNull UUID employeeId);
+/**
+ * Read methods returning employees to be mapped to DTOs fetch hobbies in the same statement
+ * (entity graph or fetch join), paged reads use a two query plan: ids first, then the employees
+ * with their hobbies by id, so the limit is applied by the database and not in memory. Reads of
+ * selected fields only are provided by {@link EmployeeProjectionRepository}.
+ */
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeProjectionRepository {
+    String HOBBIES = "hobbies";
 
+    @EntityGraph(attributePaths = HOBBIES)
     Optional<Employee> findByEmployeeId(@NotNull UUID employeeId);
 
     Optional<Employee> findByEmail(@Email String email);
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select e.employeeId as employeeId, e.email as email from Employee e where e.email in :emails")
+    List<EmailOwner> findEmailOwners(@Param("emails") Collection<String> emails);
+
+    @EntityGraph(attributePaths = HOBBIES)
+    List<Employee> findByEmployeeIdIn(Collection<UUID> employeeIds);
+
+    @Override
+    @EntityGraph(attributePaths = HOBBIES)
+    List<Employee> findAll();
+
+    /**
+     * Aggregates that change with every create, update and delete: updates increase the version sum,
+     * creates and deletes change the count or the id sums.
+     */
+    @Query("select count(e) as count, max(e.id) as maxId, sum(e.id) as idSum, sum(e.version) as versionSum "
+            + "from Employee e")
+    CollectionVersion findCollectionVersion();
+
+    /**
+     * Keyset page: ids of employees with an internal id strictly greater than the given one, in id order.
+     */
+    @Query("select e.id from Employee e where e.id > :id order by e.id")
+    List<Long> findIdsAfter(@Param("id") long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = HOBBIES)
+    List<Employee> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Keyset page of the employees having the hobby, resolved through the unique hobby key and the
+     * hobby index of the join table.
+     */
+    @Query("select e.id from Employee e join e.hobbies h where h.hobbyKey = :hobbyKey and e.id > :id order by e.id")
+    List<Long> findIdsByHobbyKeyAfter(@Param("hobbyKey") byte[] hobbyKey, @Param("id") long id, Pageable pageable);
+
+    /**
+     * Keyset page of the employees with a last name matching the pattern, which must have a literal prefix and
+     * may use {@code !} to escape wildcards, in last name and id order after the given position. The
+     * {@code (last_name, id)} index is range scanned in that order, no matches are sorted.
+     */
+    @Query("select e.id as id, e.lastName as lastName from Employee e "
+            + "where e.lastName like :pattern escape '!' "
+            + "and (e.lastName > :lastName or (e.lastName = :lastName and e.id > :id)) "
+            + "order by e.lastName, e.id")
+    List<LastNamePosition> findPositionsByLastNameLikeAfter(
+            @Param("pattern") String pattern,
+            @Param("lastName") String lastName,
+            @Param("id") long id,
+            Pageable pageable);
+
+    @Query("select e.id from Employee e where e.emailDomain = :emailDomain and e.id > :id order by e.id")
+    List<Long> findIdsByEmailDomainAfter(
+            @Param("emailDomain") String emailDomain,
+            @Param("id") long id,
+            Pageable pageable);
+
+    /**
+     * Keyset page of the employees born in the inclusive range, in birthday and id order after the given
+     * position, range scanned on the {@code (birthday, id)} index.
+     */
+    @Query("select e.id as id, e.birthday as birthday from Employee e "
+            + "where e.birthday between :from and :to "
+            + "and (e.birthday > :birthday or (e.birthday = :birthday and e.id > :id)) "
+            + "order by e.birthday, e.id")
+    List<BirthdayPosition> findPositionsByBirthdayBetweenAfter(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("birthday") LocalDate birthday,
+            @Param("id") long id,
+            Pageable pageable);
+
+    /**
+     * Scrolls over all employees in id order without materializing the result list.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Employee e left join fetch e.hobbies order by e.id")
+    Stream<Employee> streamAll();
+
+    interface EmailOwner {
+        UUID getEmployeeId();
+
+        String getEmail();
+    }
+
+    interface LastNamePosition {
+        Long getId();
+
+        String getLastName();
+    }
+
+    interface BirthdayPosition {
+        Long getId();
+
+        LocalDate getBirthday();
+    }
+
+    interface CollectionVersion {
+        long getCount();
+
+        Long getMaxId();
+
+        Long getIdSum();
+
+        Long getVersionSum();
+    }
 }
@@ -0,0 +1,13 @@
+package company.employee.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import company.employee.domain.Hobby;
+
+public interface HobbyRepository extends JpaRepository<Hobby, Long> {
+
+    List<Hobby> findByHobbyKeyIn(Collection<byte[]> hobbyKeys);
+}
@@ -0,0 +1,30 @@
+package company.employee.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import company.employee.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest pending events, locked for the current transaction. Rows locked by another instance are
+     * skipped (lock timeout -2 is SKIP LOCKED in Hibernate) so several relays can drain the outbox in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxEvent o order by o.createdAt, o.id")
+    List<OutboxEvent> findNextBatch(Pageable pageable);
+
+    @Query("select min(o.createdAt) from OutboxEvent o")
+    Optional<Instant> findOldestCreatedAt();
+}
@@ -1,15 +1,28 @@
 package company.employee.security;
 
 import org.springframework.security.web.authentication.preauth.AbstractPreAuthenticatedProcessingFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestHeaderRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
+/**
+ * Authenticates requests carrying an API key. Requests without the header and requests to public routes
+ * are passed on without touching the security context or the authentication manager.
+ */
 public class ApiKeyAuthenticationFilter extends AbstractPreAuthenticatedProcessingFilter {
 
     private final String headerName;
 
+    public ApiKeyAuthenticationFilter(final String headerName, final RequestMatcher publicRoutes) {
+        this.headerName = headerName;
+        setRequiresAuthenticationRequestMatcher(new AndRequestMatcher(
+                new RequestHeaderRequestMatcher(headerName),
+                new NegatedRequestMatcher(publicRoutes)));
+    }
+
     @Override
     protected Object getPreAuthenticatedPrincipal(HttpServletRequest request) {
         return request.getHeader(headerName);
@@ -0,0 +1,119 @@
+package company.employee.security;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Valid API keys, stored as SHA-256 hashes with a name. A presented key is hashed and looked up by its hash,
+ * so the lookup takes the same time for every key and no key is compared character by character.
+ * <p>
+ * Keys come from an optional file with one {@code name:sha256-hex} entry per line, the file is reloaded when
+ * it changes, so keys can be added and revoked without a restart. The plain key of {@code app.http.api-key}
+ * is added with the name {@value #DEFAULT_KEY_NAME}.
+ */
+@Slf4j
+@Component
+public class ApiKeyStore {
+    public static final String DEFAULT_KEY_NAME = "default";
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final String defaultApiKey;
+    private final Path keysFile;
+
+    private volatile Map<ByteBuffer, String> keyNamesByHash;
+    private volatile FileTime keysFileModified;
+
+    public ApiKeyStore(
+            @Value("${app.http.api-key:}") final String defaultApiKey,
+            @Value("${app.http.api-keys-file:}") final String keysFile) {
+        this.defaultApiKey = defaultApiKey;
+        this.keysFile = keysFile.isBlank() ? null : Path.of(keysFile);
+        this.keyNamesByHash = loadKeys();
+    }
+
+    /**
+     * @return the name of the key, empty if the key is unknown
+     */
+    public Optional<String> findKeyName(final String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(keyNamesByHash.get(ByteBuffer.wrap(hash(apiKey))));
+    }
+
+    @Scheduled(fixedDelayString = "${app.http.api-keys-reload-interval-ms:10000}")
+    public void reloadIfModified() {
+        if (keysFile == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(keysFile);
+            if (!modified.equals(keysFileModified)) {
+                keyNamesByHash = loadKeys();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the last valid keys stay in use
+            log.error("error reloading API keys from {}", keysFile, e);
+        }
+    }
+
+    private Map<ByteBuffer, String> loadKeys() {
+        Map<ByteBuffer, String> keys = new HashMap<>();
+        if (!defaultApiKey.isEmpty()) {
+            keys.put(ByteBuffer.wrap(hash(defaultApiKey)), DEFAULT_KEY_NAME);
+        }
+        if (keysFile != null) {
+            try {
+                keysFileModified = Files.getLastModifiedTime(keysFile);
+                List<String> lines = Files.readAllLines(keysFile, StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    addKey(keys, line.strip());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("error reading API keys from " + keysFile, e);
+            }
+        }
+        log.info("loaded {} API keys", keys.size());
+        return Map.copyOf(keys);
+    }
+
+    private static void addKey(final Map<ByteBuffer, String> keys, final String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+        int separator = line.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("API key entry is not name:sha256-hex: " + line);
+        }
+        byte[] keyHash = HexFormat.of().parseHex(line.substring(separator + 1));
+        if (keyHash.length != 32) {
+            throw new IllegalArgumentException("API key hash is not a SHA-256 hash: " + line);
+        }
+        keys.put(ByteBuffer.wrap(keyHash), line.substring(0, separator));
+    }
+
+    static byte[] hash(final String apiKey) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(apiKey.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package company.employee.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rejects employee requests before they reach authentication or the database: with 429 Too Many Requests
+ * once a client used up its token bucket, with 503 Service Unavailable once too many requests of the route
+ * are in progress. Clients are identified by the name of their API key, anonymous clients and unknown keys
+ * by their address. List routes and single item routes have separate budgets.
+ * <p>
+ * Not a bean on purpose, a filter bean would also be registered with the servlet container and run twice.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String EMPLOYEES_PATH = "/employees";
+    private static final String SEARCH_PATH = EMPLOYEES_PATH + "/search";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Route {
+        /**
+         * Reads of many employees: lists, pages, streams and searches.
+         */
+        LIST,
+        /**
+         * Reads and writes of single employees and batch writes.
+         */
+        ITEM
+    }
+
+    /**
+     * @param requestsPerSecond sustained rate per client
+     * @param burst requests a client can send at once
+     * @param maxConcurrent requests of all clients in progress at once
+     */
+    public record Limits(double requestsPerSecond, int burst, int maxConcurrent) {
+    }
+
+    private record ClientRoute(String client, Route route) {
+    }
+
+    private final String apiKeyHeader;
+    private final ApiKeyStore apiKeyStore;
+    private final Map<Route, Limits> limits;
+    private final Map<Route, Semaphore> inProgress = new EnumMap<>(Route.class);
+    private final Cache<ClientRoute, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+    private final Map<Route, Counter> rateLimited = new EnumMap<>(Route.class);
+    private final Map<Route, Counter> shed = new EnumMap<>(Route.class);
+
+    public RateLimitFilter(
+            final String apiKeyHeader,
+            final ApiKeyStore apiKeyStore,
+            final Map<Route, Limits> limits,
+            final MeterRegistry meterRegistry,
+            final LongSupplier nanoClock) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeyStore = apiKeyStore;
+        this.limits = new EnumMap<>(limits);
+        this.nanoClock = nanoClock;
+        // idle buckets are full again long before they expire
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        for (Route route : Route.values()) {
+            inProgress.put(route, new Semaphore(limits.get(route).maxConcurrent()));
+            rateLimited.put(route, rejectedCounter(meterRegistry, route, "rate_limit"));
+            shed.put(route, rejectedCounter(meterRegistry, route, "concurrency"));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        Optional<Route> route = route(request);
+        if (route.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Limits routeLimits = limits.get(route.get());
+        long waitNanos = buckets.get(
+                new ClientRoute(client(request), route.get()),
+                key -> new TokenBucket(routeLimits.requestsPerSecond(), routeLimits.burst(), nanoClock.getAsLong()))
+                .tryConsume(nanoClock.getAsLong());
+        if (waitNanos > 0) {
+            rateLimited.get(route.get()).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+            return;
+        }
+
+        Semaphore permits = inProgress.get(route.get());
+        if (!permits.tryAcquire()) {
+            shed.get(route.get()).increment();
+            log.warn("{} request shed, {} requests in progress", route.get(), routeLimits.maxConcurrent());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1);
+            return;
+        }
+        Runnable release = releaseOnce(permits);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // asynchronous writes and streams are in progress until the response is complete
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    static Optional<Route> route(final HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.equals(EMPLOYEES_PATH) && !path.startsWith(EMPLOYEES_PATH + "/")) {
+            return Optional.empty();
+        }
+        boolean list = HttpMethod.GET.matches(request.getMethod())
+                && (path.equals(EMPLOYEES_PATH) || path.equals(SEARCH_PATH) || path.startsWith(SEARCH_PATH + "/"));
+        return Optional.of(list ? Route.LIST : Route.ITEM);
+    }
+
+    private String client(final HttpServletRequest request) {
+        return apiKeyStore.findKeyName(request.getHeader(apiKeyHeader))
+                .map(keyName -> "key:" + keyName)
+                .orElseGet(() -> "address:" + request.getRemoteAddr());
+    }
+
+    private static void reject(
+            final HttpServletResponse response,
+            final HttpStatus status,
+            final long retryAfterSeconds) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+    }
+
+    private static Runnable releaseOnce(final Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    private static Counter rejectedCounter(final MeterRegistry meterRegistry, final Route route, final String reason) {
+        return Counter.builder("employee.requests.rejected")
+                .description("employee requests rejected before processing")
+                .tag("route", route.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class ReleasingAsyncListener implements AsyncListener {
+        private final Runnable release;
+
+        ReleasingAsyncListener(final Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // the listener is removed when the request is dispatched again, register it for the next cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
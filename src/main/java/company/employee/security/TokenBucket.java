@@ -0,0 +1,46 @@
+package company.employee.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as generic cell rate algorithm: instead of a token count the bucket
+ * keeps the time at which it will be full again, a request takes a token by moving that time one emission
+ * interval ahead with a single compare-and-set.
+ */
+public final class TokenBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param tokensPerSecond refill rate
+     * @param capacity tokens available at once, the bucket starts full
+     */
+    public TokenBucket(final double tokensPerSecond, final int capacity, final long nowNanos) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("rate and capacity must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / tokensPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryConsume(final long nowNanos) {
+        while (true) {
+            long arrivalTime = theoreticalArrivalTime.get();
+            long earliestArrivalTime = Math.max(arrivalTime, nowNanos);
+            long allowedAt = earliestArrivalTime - burstToleranceNanos;
+            if (nowNanos - allowedAt < 0) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, earliestArrivalTime + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package company.employee.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+import company.employee.util.PageToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over the hobbies, last names and birthdays of all employees. Every employee gets
+ * a dense int ordinal, every hobby, lower case last name and birthday a bitmap of the ordinals having it, so
+ * combined filters are answered by intersecting bitmaps without a database query. The index only returns
+ * employee ids, the employees themselves are loaded by id.
+ * <p>
+ * The index is built at startup and kept current with the writes of this instance after their commit and
+ * with the events of all instances. Changes are applied by version, an event never replaces a later write,
+ * and deleted employees are kept as tombstones until the next rebuild. Ordinals are not reused, so memory
+ * grows with deletes until the index is rebuilt.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.search-index.enabled", havingValue = "true")
+public class EmployeeSearchIndex {
+    /**
+     * Rough size of a map entry with its key and bitmap header, used for the memory estimate.
+     */
+    private static final int TERM_OVERHEAD_BYTES = 96;
+    private static final int SLOT_OVERHEAD_BYTES = 128;
+
+    private final ObjectProvider<EmployeeService> employeeService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private Postings postings = new Postings(0);
+    /**
+     * Changes applied while a rebuild is running, replayed on the rebuilt index before it replaces the current one.
+     */
+    private List<Consumer<Postings>> pendingChanges;
+
+    public EmployeeSearchIndex(
+            final ObjectProvider<EmployeeService> employeeService,
+            final MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        Gauge.builder("employee.search.index.employees", this, index -> index.read(Postings::liveCount))
+                .description("employees in the search index")
+                .register(meterRegistry);
+        Gauge.builder("employee.search.index.ordinals", this, index -> index.read(p -> p.slots.size()))
+                .description("ordinals in use, including deleted employees")
+                .register(meterRegistry);
+        Gauge.builder("employee.search.index.terms", this, index -> index.read(Postings::termCount))
+                .description("distinct hobbies, last names and birthdays in the search index")
+                .register(meterRegistry);
+        Gauge.builder("employee.search.index.memory", this, index -> index.read(Postings::estimatedBytes))
+                .description("estimated heap used by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Criteria of a search, {@code null} criteria match every employee.
+     *
+     * @param hobbies matches employees having any of the hobbies
+     * @param lastNamePrefix compared case insensitively
+     * @param birthdayFrom inclusive
+     * @param birthdayTo inclusive
+     */
+    public record Criteria(Set<String> hobbies, String lastNamePrefix, LocalDate birthdayFrom, LocalDate birthdayTo) {
+    }
+
+    /**
+     * @param employeeIds matching employees in ordinal order
+     * @param nextPageToken {@code null} on the last page
+     */
+    public record Page(List<UUID> employeeIds, String nextPageToken) {
+    }
+
+    /**
+     * @return empty if the page token is invalid or was issued before the last rebuild
+     */
+    public Optional<Page> search(final Criteria criteria, final String pageToken, final int limit) {
+        lock.readLock().lock();
+        try {
+            int fromOrdinal = 0;
+            if (pageToken != null) {
+                Optional<Long> decodedToken = PageToken.decode(pageToken);
+                if (decodedToken.isEmpty() || (int) (decodedToken.get() >>> Integer.SIZE) != postings.generation) {
+                    log.info("invalid search index page token: {}", pageToken);
+                    return Optional.empty();
+                }
+                fromOrdinal = decodedToken.get().intValue() + 1;
+            }
+            BitSet matches = postings.match(criteria);
+            List<UUID> employeeIds = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            int lastOrdinal = -1;
+            int ordinal = matches.nextSetBit(fromOrdinal);
+            while (ordinal >= 0 && employeeIds.size() < limit) {
+                employeeIds.add(postings.slots.get(ordinal).employeeId());
+                lastOrdinal = ordinal;
+                ordinal = matches.nextSetBit(ordinal + 1);
+            }
+            String nextPageToken = ordinal < 0 || lastOrdinal < 0
+                    ? null
+                    : PageToken.encode(((long) postings.generation << Integer.SIZE) | lastOrdinal);
+            return Optional.of(new Page(employeeIds, nextPageToken));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the change once the current transaction commits, immediately without a transaction.
+     */
+    public void applyAfterCommit(final EventType eventType, final Collection<EmployeeDto> employeeDtos) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(eventType, employeeDtos);
+                }
+            });
+        } else {
+            apply(eventType, employeeDtos);
+        }
+    }
+
+    public void apply(final EventType eventType, final Collection<EmployeeDto> employeeDtos) {
+        Consumer<Postings> change = switch (eventType) {
+            case CREATED, UPDATED -> p -> employeeDtos.forEach(p::index);
+            case DELETED -> p -> employeeDtos.forEach(employeeDto -> p.remove(employeeDto.getEmployeeId()));
+        };
+        lock.writeLock().lock();
+        try {
+            change.accept(postings);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        rebuild();
+    }
+
+    /**
+     * Builds a new index from all employees and replaces the current one, searches keep using the current
+     * index meanwhile. Page tokens of the current index become invalid.
+     *
+     * @return the number of indexed employees
+     */
+    public int rebuild() {
+        rebuildLock.lock();
+        try {
+            Postings rebuilt;
+            lock.writeLock().lock();
+            try {
+                rebuilt = new Postings(postings.generation + 1);
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.nanoTime();
+            try {
+                employeeService.getObject().streamAll(rebuilt::index);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                postings = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("search index rebuilt with {} employees in {} ms",
+                    rebuilt.liveCount(), (System.nanoTime() - start) / 1_000_000);
+            return rebuilt.liveCount();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private double read(final ToDoubleFunction<Postings> metric) {
+        lock.readLock().lock();
+        try {
+            return metric.applyAsDouble(postings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Slot(UUID employeeId, Long version, Set<String> hobbies, String lastName, LocalDate birthday) {
+    }
+
+    /**
+     * The bitmaps of one build of the index, not thread safe.
+     */
+    private static final class Postings {
+        private final int generation;
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<Slot> slots = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, BitSet> hobbies = new HashMap<>();
+        private final NavigableMap<String, BitSet> lastNames = new TreeMap<>();
+        private final NavigableMap<LocalDate, BitSet> birthdays = new TreeMap<>();
+
+        Postings(final int generation) {
+            this.generation = generation;
+        }
+
+        void index(final EmployeeDto employeeDto) {
+            Integer ordinal = ordinals.get(employeeDto.getEmployeeId());
+            if (ordinal == null) {
+                ordinal = slots.size();
+                ordinals.put(employeeDto.getEmployeeId(), ordinal);
+                slots.add(null);
+            } else {
+                Slot slot = slots.get(ordinal);
+                if (!live.get(ordinal) || !isNewer(employeeDto.getVersion(), slot.version())) {
+                    return;
+                }
+                removeTerms(ordinal, slot);
+            }
+            Slot slot = new Slot(
+                    employeeDto.getEmployeeId(),
+                    employeeDto.getVersion(),
+                    employeeDto.getHobbies() == null ? Set.of() : Set.copyOf(employeeDto.getHobbies()),
+                    toLastNameKey(employeeDto.getLastName()),
+                    employeeDto.getBirthday());
+            slots.set(ordinal, slot);
+            live.set(ordinal);
+            slot.hobbies().forEach(hobby -> add(hobbies, hobby, ordinal));
+            add(lastNames, slot.lastName(), ordinal);
+            add(birthdays, slot.birthday(), ordinal);
+        }
+
+        /**
+         * Keeps the ordinal as tombstone, so a late event of the deleted employee doesn't index it again.
+         */
+        void remove(final UUID employeeId) {
+            Integer ordinal = ordinals.get(employeeId);
+            if (ordinal == null) {
+                ordinals.put(employeeId, slots.size());
+                slots.add(new Slot(employeeId, null, Set.of(), null, null));
+            } else if (live.get(ordinal)) {
+                removeTerms(ordinal, slots.get(ordinal));
+                live.clear(ordinal);
+            }
+        }
+
+        BitSet match(final Criteria criteria) {
+            BitSet matches = (BitSet) live.clone();
+            if (criteria.hobbies() != null) {
+                matches.and(union(criteria.hobbies().stream().map(hobbies::get).toList()));
+            }
+            if (criteria.lastNamePrefix() != null) {
+                String prefix = toLastNameKey(criteria.lastNamePrefix());
+                matches.and(union(lastNames.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()));
+            }
+            if (criteria.birthdayFrom() != null || criteria.birthdayTo() != null) {
+                NavigableMap<LocalDate, BitSet> range = birthdays;
+                if (criteria.birthdayFrom() != null) {
+                    range = range.tailMap(criteria.birthdayFrom(), true);
+                }
+                if (criteria.birthdayTo() != null) {
+                    range = range.headMap(criteria.birthdayTo(), true);
+                }
+                matches.and(union(range.values()));
+            }
+            return matches;
+        }
+
+        int liveCount() {
+            return live.cardinality();
+        }
+
+        int termCount() {
+            return hobbies.size() + lastNames.size() + birthdays.size();
+        }
+
+        long estimatedBytes() {
+            long bytes = (long) slots.size() * SLOT_OVERHEAD_BYTES + live.size() / Byte.SIZE;
+            for (Map<?, BitSet> terms : List.of(hobbies, lastNames, birthdays)) {
+                for (BitSet ordinalsOfTerm : terms.values()) {
+                    bytes += TERM_OVERHEAD_BYTES + ordinalsOfTerm.size() / Byte.SIZE;
+                }
+            }
+            return bytes;
+        }
+
+        private void removeTerms(final int ordinal, final Slot slot) {
+            slot.hobbies().forEach(hobby -> clear(hobbies, hobby, ordinal));
+            clear(lastNames, slot.lastName(), ordinal);
+            clear(birthdays, slot.birthday(), ordinal);
+        }
+
+        private static <K> void add(final Map<K, BitSet> terms, final K term, final int ordinal) {
+            if (term != null) {
+                terms.computeIfAbsent(term, t -> new BitSet()).set(ordinal);
+            }
+        }
+
+        private static <K> void clear(final Map<K, BitSet> terms, final K term, final int ordinal) {
+            BitSet ordinalsOfTerm = term == null ? null : terms.get(term);
+            if (ordinalsOfTerm != null) {
+                ordinalsOfTerm.clear(ordinal);
+                if (ordinalsOfTerm.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+
+        private static BitSet union(final Collection<BitSet> bitSets) {
+            BitSet union = new BitSet();
+            for (BitSet bitSet : bitSets) {
+                if (bitSet != null) {
+                    union.or(bitSet);
+                }
+            }
+            return union;
+        }
+
+        private static boolean isNewer(final Long version, final Long indexedVersion) {
+            return version == null || indexedVersion == null || version > indexedVersion;
+        }
+
+        private static String toLastNameKey(final String lastName) {
+            return lastName == null ? null : lastName.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -1,21 +1,111 @@
 package company.employee.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import company.employee.dto.BatchItemResultDto;
 import company.employee.dto.EmployeeDataDto;
 import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.dto.EmployeePageDto;
+import company.employee.dto.EmployeePatchDto;
 
 public interface EmployeeService {
+    /**
+     * Page limits are capped to this size.
+     */
+    int MAX_PAGE_SIZE = 1000;
 
     List<EmployeeDto> findAll();
 
+    /**
+     * The read methods taking fields read only the columns of the given fields, the other fields of the returned
+     * employees stay {@code null}. Employees are read completely if the hobbies are among the fields.
+     */
+    List<EmployeeDto> findAll(final Set<EmployeeField> fields);
+
+    /**
+     * @return the employees in the order of the ids, unknown ids are skipped
+     */
+    List<EmployeeDto> findAll(final List<UUID> employeeIds);
+
+    Optional<EmployeePageDto> findPage(final String pageToken, final int limit, final Set<EmployeeField> fields);
+
+    /**
+     * The search pages are empty if the page token or the criteria are invalid.
+     * <p>
+     * Keyset page of the employees having exactly the given hobby, in the same order as {@link #findPage}.
+     */
+    Optional<EmployeePageDto> findPageByHobby(
+            final String hobby,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields);
+
+    /**
+     * Keyset page of the employees whose last name starts with the given prefix.
+     */
+    Optional<EmployeePageDto> findPageByLastNamePrefix(
+            final String lastNamePrefix,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields);
+
+    /**
+     * Keyset page of the employees with an email in the given domain, compared case insensitively.
+     */
+    Optional<EmployeePageDto> findPageByEmailDomain(
+            final String emailDomain,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields);
+
+    /**
+     * Keyset page of the employees born between the given dates, both inclusive.
+     */
+    Optional<EmployeePageDto> findPageByBirthdayBetween(
+            final LocalDate from,
+            final LocalDate to,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields);
+
+    void streamAll(final Consumer<EmployeeDto> consumer);
+
+    void streamAll(final Set<EmployeeField> fields, final Consumer<EmployeeDto> consumer);
+
+    /**
+     * Opaque value that changes whenever any employee is created, updated or deleted.
+     */
+    String findCollectionVersion();
+
     Optional<EmployeeDto> find(final UUID employeeId);
 
     Optional<EmployeeDto> create(final EmployeeDataDto employeeDto);
 
-    Optional<EmployeeDto> update(final UUID employeeId, final EmployeeDataDto employeeDto);
+    /**
+     * @param expectedVersion version the update is based on, {@code null} to update any version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the employee has another version
+     */
+    Optional<EmployeeDto> update(final UUID employeeId, final EmployeeDataDto employeeDto, final Long expectedVersion);
+
+    /**
+     * Changes the non-null fields of the patch only.
+     *
+     * @param expectedVersion version the patch is based on, {@code null} to patch any version
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the employee has another version
+     */
+    Optional<EmployeeDto> patch(final UUID employeeId, final EmployeePatchDto employeePatchDto, final Long expectedVersion);
 
     Optional<EmployeeDto> delete(final UUID employeeId);
+
+    List<BatchItemResultDto> createAll(final List<EmployeeDataDto> employeeDataDtos);
+
+    List<BatchItemResultDto> updateAll(final List<EmployeeDto> employeeDtos);
+
+    List<BatchItemResultDto> deleteAll(final List<UUID> employeeIds);
 }
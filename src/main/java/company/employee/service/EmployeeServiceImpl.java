@@ -1,20 +1,54 @@
 package company.employee.service;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import company.employee.config.CacheConfig;
 import company.employee.domain.Employee;
+import company.employee.domain.Hobby;
+import company.employee.dto.BatchItemResultDto;
+import company.employee.dto.BatchItemResultDto.Status;
 import company.employee.dto.EmployeeDataDto;
 import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.dto.EmployeePageDto;
+import company.employee.dto.EmployeePatchDto;
+import company.employee.mapper.EmployeeMapper;
 import company.employee.repository.EmployeeRepository;
+import company.employee.repository.EmployeeRepository.CollectionVersion;
+import company.employee.repository.EmployeeRepository.EmailOwner;
 import company.employee.util.EventPublisher;
+import company.employee.util.PageToken;
 import company.employee.util.UuidSource;
+import company.employee.util.VersionedEmployeeCache;
 import company.employee.util.EventPublisher.EventType;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,17 +57,22 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Observed(name = "employee.service")
 public class EmployeeServiceImpl implements EmployeeService {
-    private final ModelMapper mapper;
+    private final EmployeeMapper mapper;
     private final UuidSource uuidSource;
     private final EmployeeRepository employeeRepository;
     private final EventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectProvider<EmployeeSearchIndex> searchIndex;
+    private final CacheManager cacheManager;
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId", unless = "#result == null")
     public Optional<EmployeeDto> find(final UUID employeeId) {
         Optional<Employee> employee = employeeRepository.findByEmployeeId(employeeId);
         return employee.stream()
-                .map(e -> mapper.map(e, EmployeeDto.class))
+                .map(e -> mapper.toEmployeeDto(e))
                 .findAny();
     }
 
@@ -41,56 +80,515 @@ public class EmployeeServiceImpl implements EmployeeService {
     public List<EmployeeDto> findAll() {
         return employeeRepository.findAll()
                 .stream()
-                .map(e -> mapper.map(e, EmployeeDto.class))
+                .map(e -> mapper.toEmployeeDto(e))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<EmployeeDto> findAll(final Set<EmployeeField> fields) {
+        return readsHobbies(fields) ? findAll() : employeeRepository.findAllProjected(fields);
+    }
+
+    @Override
+    public List<EmployeeDto> findAll(final List<UUID> employeeIds) {
+        Map<UUID, Employee> employees = findByEmployeeIds(employeeIds);
+        return employeeIds.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .map(e -> mapper.toEmployeeDto(e))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<EmployeePageDto> findPage(
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields) {
+        return findPage(pageToken, limit, fields, employeeRepository::findIdsAfter);
+    }
+
+    @Override
+    public Optional<EmployeePageDto> findPageByHobby(
+            final String hobby,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields) {
+        if (hobby.isBlank()) {
+            return Optional.empty();
+        }
+        byte[] hobbyKey = Hobby.toKey(hobby);
+        return findPage(
+                pageToken,
+                limit,
+                fields,
+                (lastId, page) -> employeeRepository.findIdsByHobbyKeyAfter(hobbyKey, lastId, page));
+    }
+
+    @Override
+    public Optional<EmployeePageDto> findPageByLastNamePrefix(
+            final String lastNamePrefix,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields) {
+        if (lastNamePrefix.isEmpty()) {
+            // would match and sort all employees
+            return Optional.empty();
+        }
+        String pattern = escapeLikeWildcards(lastNamePrefix) + "%";
+        // every last name sorts after the empty one
+        return findSortedPage(
+                pageToken,
+                limit,
+                fields,
+                new PageToken.Position("", 0L),
+                (position, page) -> employeeRepository.findPositionsByLastNameLikeAfter(
+                                pattern,
+                                position.sortKey(),
+                                position.lastId(),
+                                page)
+                        .stream()
+                        .map(row -> new PageToken.Position(row.getLastName(), row.getId()))
+                        .toList());
+    }
+
+    @Override
+    public Optional<EmployeePageDto> findPageByEmailDomain(
+            final String emailDomain,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields) {
+        if (emailDomain.isBlank()) {
+            return Optional.empty();
+        }
+        String normalizedEmailDomain = emailDomain.toLowerCase(Locale.ROOT);
+        return findPage(
+                pageToken,
+                limit,
+                fields,
+                (lastId, page) -> employeeRepository.findIdsByEmailDomainAfter(normalizedEmailDomain, lastId, page));
+    }
+
+    @Override
+    public Optional<EmployeePageDto> findPageByBirthdayBetween(
+            final LocalDate from,
+            final LocalDate to,
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields) {
+        if (from.isAfter(to)) {
+            return Optional.empty();
+        }
+        return findSortedPage(
+                pageToken,
+                limit,
+                fields,
+                new PageToken.Position(from.toString(), 0L),
+                (position, page) -> employeeRepository.findPositionsByBirthdayBetweenAfter(
+                                from,
+                                to,
+                                LocalDate.parse(position.sortKey()),
+                                position.lastId(),
+                                page)
+                        .stream()
+                        .map(row -> new PageToken.Position(row.getBirthday().toString(), row.getId()))
+                        .toList());
+    }
+
+    /**
+     * Keyset page in id order: the ids of the page are selected first, then the employees with their hobbies
+     * or the selected fields only.
+     *
+     * @param idQuery ids of the matching employees with an id greater than the given one, in id order
+     */
+    private Optional<EmployeePageDto> findPage(
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields,
+            final BiFunction<Long, Pageable, List<Long>> idQuery) {
+        long lastId = 0L;
+        if (pageToken != null) {
+            Optional<Long> decodedToken = PageToken.decode(pageToken);
+            if (decodedToken.isEmpty()) {
+                log.info("invalid page token: {}", pageToken);
+                return Optional.empty();
+            }
+            lastId = decodedToken.get();
+        }
+        final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Long> ids = idQuery.apply(lastId, PageRequest.ofSize(pageSize));
+        String nextPageToken = ids.size() < pageSize
+                ? null
+                : PageToken.encode(ids.get(ids.size() - 1));
+        return Optional.of(new EmployeePageDto(findInOrder(ids, fields), nextPageToken));
+    }
+
+    /**
+     * Keyset page sorted by a column and the id, the page token holds the column value and the id of the last
+     * employee on the page. Sort keys that the query cannot parse make the token invalid.
+     *
+     * @param first position before the first matching employee
+     * @param positionQuery positions of the matching employees after the given one, in sort order
+     */
+    private Optional<EmployeePageDto> findSortedPage(
+            final String pageToken,
+            final int limit,
+            final Set<EmployeeField> fields,
+            final PageToken.Position first,
+            final BiFunction<PageToken.Position, Pageable, List<PageToken.Position>> positionQuery) {
+        PageToken.Position position = first;
+        if (pageToken != null) {
+            Optional<PageToken.Position> decodedToken = PageToken.decodePosition(pageToken);
+            if (decodedToken.isEmpty()) {
+                log.info("invalid page token: {}", pageToken);
+                return Optional.empty();
+            }
+            position = decodedToken.get();
+        }
+        final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        final List<PageToken.Position> positions;
+        try {
+            positions = positionQuery.apply(position, PageRequest.ofSize(pageSize));
+        } catch (DateTimeParseException e) {
+            log.info("invalid page token: {}", pageToken);
+            return Optional.empty();
+        }
+        String nextPageToken = positions.size() < pageSize
+                ? null
+                : PageToken.encode(positions.get(positions.size() - 1));
+        List<Long> ids = positions.stream().map(PageToken.Position::lastId).toList();
+        return Optional.of(new EmployeePageDto(findInOrder(ids, fields), nextPageToken));
+    }
+
+    /**
+     * @return the employees with the given internal ids in the order of the ids, with their hobbies or the
+     *         selected fields only
+     */
+    private List<EmployeeDto> findInOrder(final List<Long> ids, final Set<EmployeeField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (!readsHobbies(fields)) {
+            return employeeRepository.findProjectedByIdIn(ids, fields);
+        }
+        Map<Long, Employee> employees = employeeRepository.findByIdInOrderByIdAsc(ids)
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return ids.stream()
+                .map(employees::get)
+                .filter(Objects::nonNull)
+                .map(e -> mapper.toEmployeeDto(e))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamAll(final Consumer<EmployeeDto> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(e -> {
+                consumer.accept(mapper.toEmployeeDto(e));
+                // keep the persistence context flat while scrolling
+                entityManager.detach(e);
+            });
+        }
+    }
+
+    @Override
+    public void streamAll(final Set<EmployeeField> fields, final Consumer<EmployeeDto> consumer) {
+        if (readsHobbies(fields)) {
+            streamAll(consumer);
+        } else {
+            try (Stream<EmployeeDto> employees = employeeRepository.streamAllProjected(fields)) {
+                employees.forEach(consumer);
+            }
+        }
+    }
+
+    @Override
+    public String findCollectionVersion() {
+        CollectionVersion version = employeeRepository.findCollectionVersion();
+        return version.getCount()
+                + "-" + Objects.requireNonNullElse(version.getMaxId(), 0L)
+                + "-" + Objects.requireNonNullElse(version.getIdSum(), 0L)
+                + "-" + Objects.requireNonNullElse(version.getVersionSum(), 0L);
+    }
+
+    /**
+     * Not cached: lookup misses are never cached, so there is no entry a new employee could invalidate.
+     */
     @Override
     public Optional<EmployeeDto> create(final EmployeeDataDto employeeDataDto) {
         if (employeeRepository.findByEmail(employeeDataDto.getEmail()).isPresent()) {
             log.info("can't create employee, email already exists: {}", employeeDataDto);
             return Optional.empty();
         }
-        final Employee employee = mapper.map(employeeDataDto, Employee.class);
-        employee.setEmployeeId(uuidSource.randomUUID());
+        final Employee employee = mapper.toEmployee(employeeDataDto);
+        employee.setEmployeeId(uuidSource.timeOrderedUUID());
 
         final Employee savedEmployee = employeeRepository.save(employee);
-        final EmployeeDto savedEmployeeDto = mapper.map(savedEmployee, EmployeeDto.class);
+        final EmployeeDto savedEmployeeDto = mapper.toEmployeeDto(savedEmployee);
 
         eventPublisher.publishEmployeeEvent(EventType.CREATED, savedEmployeeDto);
+        updateSearchIndex(EventType.CREATED, List.of(savedEmployeeDto));
         return Optional.of(savedEmployeeDto);
     }
 
     @Override
-    public Optional<EmployeeDto> update(final UUID employeeId, final EmployeeDataDto employeeDataDto) {
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId", unless = "#result == null")
+    public Optional<EmployeeDto> update(
+            final UUID employeeId,
+            final EmployeeDataDto employeeDataDto,
+            final Long expectedVersion) {
+        return modify(employeeId, expectedVersion, employee -> mapper.updateEmployee(employee, employeeDataDto));
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#employeeId", unless = "#result == null")
+    public Optional<EmployeeDto> patch(
+            final UUID employeeId,
+            final EmployeePatchDto employeePatchDto,
+            final Long expectedVersion) {
+        return modify(employeeId, expectedVersion, employee -> mapper.patchEmployee(employee, employeePatchDto));
+    }
+
+    /**
+     * Modifies the loaded entity in place and flushes, so a concurrent update committed since the employee was
+     * loaded fails here with an optimistic locking exception instead of being overwritten. No event is
+     * published if nothing changed.
+     */
+    private Optional<EmployeeDto> modify(
+            final UUID employeeId,
+            final Long expectedVersion,
+            final Consumer<Employee> modification) {
         Optional<Employee> employee = employeeRepository.findByEmployeeId(employeeId);
         if (employee.isEmpty()) {
             log.info("updating a non-existent employee with id: {}", employeeId);
             return Optional.empty();
-        } else {
-            Employee persistedEmployee = employee.get();
-            Employee updatedEmployee = mapper.map(employeeDataDto, Employee.class);
-            updatedEmployee.setId(persistedEmployee.getId());
-            updatedEmployee.setEmployeeId(persistedEmployee.getEmployeeId());
+        }
+        Employee persistedEmployee = employee.get();
+        if (!isExpectedVersion(persistedEmployee, expectedVersion)) {
+            log.info("version conflict updating employee {}, expected version {}", employeeId, expectedVersion);
+            throw new ObjectOptimisticLockingFailureException(Employee.class, employeeId);
+        }
+        EmployeeDto originalEmployeeDto = mapper.toEmployeeDto(persistedEmployee);
+        modification.accept(persistedEmployee);
+        // flushed to detect concurrent updates and to return the incremented version
+        employeeRepository.flush();
 
-            Employee savedEmployee = employeeRepository.save(updatedEmployee);
-            EmployeeDto updatedEmployeeDto = mapper.map(savedEmployee, EmployeeDto.class);
+        EmployeeDto updatedEmployeeDto = mapper.toEmployeeDto(persistedEmployee);
+        if (updatedEmployeeDto.equals(originalEmployeeDto)) {
+            log.debug("employee {} not changed", employeeId);
+        } else {
             eventPublisher.publishEmployeeEvent(EventType.UPDATED, updatedEmployeeDto);
-            return Optional.of(updatedEmployeeDto);
+            updateSearchIndex(EventType.UPDATED, List.of(updatedEmployeeDto));
         }
+        return Optional.of(updatedEmployeeDto);
     }
 
+    /**
+     * Not evicted but replaced by a tombstone of the deleted version, so a reader that loaded the employee
+     * before the delete committed cannot cache it again afterwards.
+     */
     @Override
     public Optional<EmployeeDto> delete(final UUID employeeId) {
-        Optional<EmployeeDto> employeeSearchResult = find(employeeId);
-        if (employeeSearchResult.isEmpty()) {
+        Optional<Employee> employee = employeeRepository.findByEmployeeId(employeeId);
+        if (employee.isEmpty()) {
             log.info("deleting a non-existent employee with id: {}", employeeId);
             return Optional.empty();
         } else {
-            employeeRepository.deleteByEmployeeId(employeeId);
-            EmployeeDto deletedEmployeeDto = employeeSearchResult.get();
+            EmployeeDto deletedEmployeeDto = mapper.toEmployeeDto(employee.get());
+            employeeRepository.delete(employee.get());
+            cacheDeleted(deletedEmployeeDto);
             eventPublisher.publishEmployeeEvent(EventType.DELETED, deletedEmployeeDto);
+            updateSearchIndex(EventType.DELETED, List.of(deletedEmployeeDto));
             return Optional.of(deletedEmployeeDto);
         }
     }
+
+    @Override
+    public List<BatchItemResultDto> createAll(final List<EmployeeDataDto> employeeDataDtos) {
+        Set<String> existingEmails = employeeRepository.findExistingEmails(
+                employeeDataDtos.stream().map(EmployeeDataDto::getEmail).toList())
+                .stream()
+                .map(EmployeeServiceImpl::normalizeEmail)
+                .collect(Collectors.toSet());
+        Set<String> batchEmails = new HashSet<>();
+
+        BatchItemResultDto[] results = new BatchItemResultDto[employeeDataDtos.size()];
+        List<Integer> newEmployeeIndexes = new ArrayList<>();
+        List<EmployeeDataDto> newEmployeeDataDtos = new ArrayList<>();
+        for (int i = 0; i < employeeDataDtos.size(); i++) {
+            EmployeeDataDto employeeDataDto = employeeDataDtos.get(i);
+            String email = normalizeEmail(employeeDataDto.getEmail());
+            if (existingEmails.contains(email) || !batchEmails.add(email)) {
+                results[i] = new BatchItemResultDto(i, Status.DUPLICATE_EMAIL, null);
+            } else {
+                newEmployeeDataDtos.add(employeeDataDto);
+                newEmployeeIndexes.add(i);
+            }
+        }
+
+        List<Employee> newEmployees = mapper.toEmployees(newEmployeeDataDtos);
+        newEmployees.forEach(employee -> employee.setEmployeeId(uuidSource.timeOrderedUUID()));
+
+        List<Employee> savedEmployees = employeeRepository.saveAll(newEmployees);
+        List<EmployeeDto> createdEmployeeDtos = new ArrayList<>(savedEmployees.size());
+        for (int i = 0; i < savedEmployees.size(); i++) {
+            EmployeeDto employeeDto = mapper.toEmployeeDto(savedEmployees.get(i));
+            int index = newEmployeeIndexes.get(i);
+            results[index] = new BatchItemResultDto(index, Status.CREATED, employeeDto);
+            createdEmployeeDtos.add(employeeDto);
+        }
+        log.info("created {} of {} employees", createdEmployeeDtos.size(), employeeDataDtos.size());
+
+        eventPublisher.publishEmployeeEvents(EventType.CREATED, createdEmployeeDtos);
+        updateSearchIndex(EventType.CREATED, createdEmployeeDtos);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Only the updated employees are put into the cache, like a single update.
+     */
+    @Override
+    public List<BatchItemResultDto> updateAll(final List<EmployeeDto> employeeDtos) {
+        Map<UUID, Employee> persistedEmployees = findByEmployeeIds(
+                employeeDtos.stream().map(EmployeeDto::getEmployeeId).toList());
+        Map<String, UUID> emailOwners = employeeRepository.findEmailOwners(
+                employeeDtos.stream().map(EmployeeDto::getEmail).toList())
+                .stream()
+                .collect(Collectors.toMap(
+                        owner -> normalizeEmail(owner.getEmail()),
+                        EmailOwner::getEmployeeId,
+                        (first, second) -> first));
+        Set<String> batchEmails = new HashSet<>();
+
+        BatchItemResultDto[] results = new BatchItemResultDto[employeeDtos.size()];
+        List<Integer> updatedEmployeeIndexes = new ArrayList<>();
+        List<Employee> updatedEmployees = new ArrayList<>();
+        List<EmployeeDto> originalEmployeeDtos = new ArrayList<>();
+        for (int i = 0; i < employeeDtos.size(); i++) {
+            EmployeeDto employeeDto = employeeDtos.get(i);
+            Employee persistedEmployee = persistedEmployees.get(employeeDto.getEmployeeId());
+            if (persistedEmployee == null) {
+                results[i] = new BatchItemResultDto(i, Status.NOT_FOUND, null);
+            } else if (!isExpectedVersion(persistedEmployee, employeeDto.getVersion())) {
+                results[i] = new BatchItemResultDto(i, Status.VERSION_CONFLICT, null);
+            } else if (isEmailOfOtherEmployee(employeeDto, emailOwners)
+                    || !batchEmails.add(normalizeEmail(employeeDto.getEmail()))) {
+                results[i] = new BatchItemResultDto(i, Status.DUPLICATE_EMAIL, null);
+            } else {
+                originalEmployeeDtos.add(mapper.toEmployeeDto(persistedEmployee));
+                mapper.updateEmployee(persistedEmployee, employeeDto);
+                updatedEmployees.add(persistedEmployee);
+                updatedEmployeeIndexes.add(i);
+            }
+        }
+        // flushed to detect concurrent updates and to return the incremented versions
+        employeeRepository.flush();
+
+        List<EmployeeDto> updatedEmployeeDtos = new ArrayList<>(updatedEmployees.size());
+        for (int i = 0; i < updatedEmployees.size(); i++) {
+            EmployeeDto updatedEmployeeDto = mapper.toEmployeeDto(updatedEmployees.get(i));
+            int index = updatedEmployeeIndexes.get(i);
+            results[index] = new BatchItemResultDto(index, Status.UPDATED, updatedEmployeeDto);
+            employeeCache().put(updatedEmployeeDto.getEmployeeId(), updatedEmployeeDto);
+            if (!updatedEmployeeDto.equals(originalEmployeeDtos.get(i))) {
+                updatedEmployeeDtos.add(updatedEmployeeDto);
+            }
+        }
+        log.info("updated {} of {} employees", updatedEmployeeDtos.size(), employeeDtos.size());
+
+        eventPublisher.publishEmployeeEvents(EventType.UPDATED, updatedEmployeeDtos);
+        updateSearchIndex(EventType.UPDATED, updatedEmployeeDtos);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Only the deleted employees are replaced by tombstones in the cache, like a single delete.
+     */
+    @Override
+    public List<BatchItemResultDto> deleteAll(final List<UUID> employeeIds) {
+        Map<UUID, Employee> persistedEmployees = findByEmployeeIds(employeeIds);
+
+        List<BatchItemResultDto> results = new ArrayList<>(employeeIds.size());
+        List<Employee> deletedEmployees = new ArrayList<>();
+        List<EmployeeDto> deletedEmployeeDtos = new ArrayList<>();
+        for (int i = 0; i < employeeIds.size(); i++) {
+            Employee persistedEmployee = persistedEmployees.remove(employeeIds.get(i));
+            if (persistedEmployee == null) {
+                results.add(new BatchItemResultDto(i, Status.NOT_FOUND, null));
+            } else {
+                EmployeeDto deletedEmployeeDto = mapper.toEmployeeDto(persistedEmployee);
+                results.add(new BatchItemResultDto(i, Status.DELETED, deletedEmployeeDto));
+                deletedEmployees.add(persistedEmployee);
+                deletedEmployeeDtos.add(deletedEmployeeDto);
+                cacheDeleted(deletedEmployeeDto);
+            }
+        }
+        employeeRepository.deleteAll(deletedEmployees);
+        log.info("deleted {} of {} employees", deletedEmployees.size(), employeeIds.size());
+
+        eventPublisher.publishEmployeeEvents(EventType.DELETED, deletedEmployeeDtos);
+        updateSearchIndex(EventType.DELETED, deletedEmployeeDtos);
+        return results;
+    }
+
+    /**
+     * An email already used by another employee is a conflict, even if that employee gives it up in the same
+     * batch, the unique index would be violated depending on the order of the updates.
+     */
+    private static boolean isEmailOfOtherEmployee(final EmployeeDto employeeDto, final Map<String, UUID> emailOwners) {
+        UUID owner = emailOwners.get(normalizeEmail(employeeDto.getEmail()));
+        return owner != null && !owner.equals(employeeDto.getEmployeeId());
+    }
+
+    /**
+     * The transaction aware cache puts the tombstone once the transaction committed, like every put of this
+     * service.
+     */
+    private void cacheDeleted(final EmployeeDto deletedEmployeeDto) {
+        employeeCache().put(
+                deletedEmployeeDto.getEmployeeId(),
+                new VersionedEmployeeCache.Tombstone(deletedEmployeeDto.getVersion()));
+    }
+
+    private Cache employeeCache() {
+        return cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+    }
+
+    private Map<UUID, Employee> findByEmployeeIds(final List<UUID> employeeIds) {
+        return employeeRepository.findByEmployeeIdIn(employeeIds)
+                .stream()
+                .collect(Collectors.toMap(Employee::getEmployeeId, Function.identity()));
+    }
+
+    /**
+     * Employees with hobbies are read as entities with a join of the hobbies, which also serves any other field,
+     * fields without hobbies are read as a projection of the employees table.
+     */
+    private static boolean readsHobbies(final Set<EmployeeField> fields) {
+        return fields.contains(EmployeeField.HOBBIES);
+    }
+
+    /**
+     * A {@code null} expected version matches any version.
+     */
+    private static boolean isExpectedVersion(final Employee employee, final Long expectedVersion) {
+        return expectedVersion == null || expectedVersion.equals(employee.getVersion());
+    }
+
+    /**
+     * The optional search index sees the change only after the commit, a rolled back write is never indexed.
+     */
+    private void updateSearchIndex(final EventType eventType, final List<EmployeeDto> employeeDtos) {
+        searchIndex.ifAvailable(index -> index.applyAfterCommit(eventType, employeeDtos));
+    }
+
+    private static String escapeLikeWildcards(final String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+    private static String normalizeEmail(final String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
 }
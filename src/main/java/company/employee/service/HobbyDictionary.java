@@ -0,0 +1,26 @@
+package company.employee.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import company.employee.domain.Hobby;
+
+/**
+ * Resolves hobby names to the shared entries of the hobby dictionary, creating missing entries.
+ */
+@FunctionalInterface
+public interface HobbyDictionary {
+
+    Hobby intern(final String hobby);
+
+    /**
+     * @return the dictionary entries by hobby name
+     */
+    default Map<String, Hobby> internAll(final Collection<String> hobbies) {
+        return hobbies.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), this::intern));
+    }
+}
@@ -0,0 +1,121 @@
+package company.employee.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import company.employee.domain.Hobby;
+import company.employee.repository.HobbyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the dictionary entries in memory, so known hobbies resolve without a database round-trip. Writes
+ * intern their hobbies before their transaction begins, the missing entries are then read and created in a
+ * transaction of their own, and a duplicate created concurrently by another instance is read instead. Hobbies
+ * missing inside a transaction are read and created on the connection of that transaction, never on a second
+ * one, and cached once it committed. Entries are never removed from the dictionary.
+ */
+@Slf4j
+@Component
+public class HobbyDictionaryImpl implements HobbyDictionary {
+    private final HobbyRepository hobbyRepository;
+    private final TransactionTemplate transaction;
+    private final Cache<String, Hobby> hobbies;
+
+    public HobbyDictionaryImpl(
+            final HobbyRepository hobbyRepository,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${app.cache.hobbies.spec}") final String hobbiesCacheSpec) {
+        this.hobbyRepository = hobbyRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.hobbies = Caffeine.from(hobbiesCacheSpec).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hobbies, "hobbies");
+    }
+
+    @Override
+    public Hobby intern(final String hobby) {
+        Hobby cachedHobby = hobbies.getIfPresent(hobby);
+        if (cachedHobby != null) {
+            return cachedHobby;
+        }
+        return internAll(List.of(hobby)).get(hobby);
+    }
+
+    @Override
+    public Map<String, Hobby> internAll(final Collection<String> hobbyNames) {
+        Map<String, Hobby> internedHobbies = new HashMap<>();
+        Set<String> missingHobbyNames = new HashSet<>();
+        for (String hobbyName : hobbyNames) {
+            Hobby cachedHobby = hobbies.getIfPresent(hobbyName);
+            if (cachedHobby != null) {
+                internedHobbies.put(hobbyName, cachedHobby);
+            } else {
+                missingHobbyNames.add(hobbyName);
+            }
+        }
+        if (missingHobbyNames.isEmpty()) {
+            return internedHobbies;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            List<Hobby> loadedHobbies = findOrCreate(missingHobbyNames);
+            loadedHobbies.forEach(hobby -> internedHobbies.put(hobby.getHobby(), hobby));
+            // a rolled back entry must not be cached, the entities are detached once the transaction completed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    loadedHobbies.forEach(hobby -> hobbies.put(hobby.getHobby(), hobby));
+                }
+            });
+        } else {
+            for (Hobby hobby : findOrCreateInOwnTransaction(missingHobbyNames)) {
+                hobbies.put(hobby.getHobby(), hobby);
+                internedHobbies.put(hobby.getHobby(), hobby);
+            }
+        }
+        return internedHobbies;
+    }
+
+    private List<Hobby> findOrCreateInOwnTransaction(final Set<String> hobbyNames) {
+        try {
+            return transaction.execute(status -> findOrCreate(hobbyNames));
+        } catch (DataIntegrityViolationException e) {
+            log.info("hobbies created concurrently, retrying one by one: {}", hobbyNames);
+            return hobbyNames.stream()
+                    .map(hobbyName -> transaction.execute(status -> findOrCreate(Set.of(hobbyName)).get(0)))
+                    .toList();
+        }
+    }
+
+    private List<Hobby> findOrCreate(final Set<String> hobbyNames) {
+        List<Hobby> existingHobbies = hobbyRepository.findByHobbyKeyIn(
+                hobbyNames.stream().map(Hobby::toKey).toList());
+        Set<String> newHobbyNames = new HashSet<>(hobbyNames);
+        existingHobbies.forEach(hobby -> newHobbyNames.remove(hobby.getHobby()));
+        if (newHobbyNames.isEmpty()) {
+            return existingHobbies;
+        }
+        List<Hobby> newHobbies = hobbyRepository.saveAllAndFlush(newHobbyNames.stream()
+                .map(hobbyName -> new Hobby(null, hobbyName))
+                .toList());
+        log.debug("created {} hobbies", newHobbies.size());
+        return Stream.concat(existingHobbies.stream(), newHobbies.stream()).toList();
+    }
+}
@@ -0,0 +1,22 @@
+package company.employee.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Value of the records on the employee events topic.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeEvent {
+    @JsonProperty(EventPublisher.EVENT_TYPE_FIELD_NAME)
+    private EventType eventType;
+    @JsonProperty(EventPublisher.EVENT_DATA_FIELD_NAME)
+    private EmployeeDto employeeData;
+}
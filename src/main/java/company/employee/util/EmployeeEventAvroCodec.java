@@ -0,0 +1,136 @@
+package company.employee.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+
+/**
+ * Avro binary encoding of {@link EmployeeEvent} with the schema from {@code avro/employee-event.avsc}.
+ * Records carry no schema or schema id, producers and consumers share the schema files: the
+ * {@link EventPublisher#EVENT_VERSION_HEADER} header of a record selects the schema it was written with, the
+ * record is resolved against the current schema. Previous schemas are kept as
+ * {@code avro/employee-event-v<version>.avsc}.
+ */
+final class EmployeeEventAvroCodec {
+    static final Schema SCHEMA = loadSchema("/avro/employee-event.avsc");
+
+    private static final Schema EVENT_TYPE_SCHEMA = SCHEMA.getField(EventPublisher.EVENT_TYPE_FIELD_NAME).schema();
+    private static final Schema EMPLOYEE_SCHEMA = SCHEMA.getField(EventPublisher.EVENT_DATA_FIELD_NAME).schema();
+    private static final Schema EMPLOYEE_ID_SCHEMA = EMPLOYEE_SCHEMA.getField("employee_id").schema();
+    private static final DatumWriter<GenericRecord> WRITER = new GenericDatumWriter<>(SCHEMA);
+    private static final Map<String, DatumReader<GenericRecord>> READERS = Map.of(
+            "1", new GenericDatumReader<>(loadSchema("/avro/employee-event-v1.avsc"), SCHEMA),
+            EventPublisher.EVENT_VERSION, new GenericDatumReader<>(SCHEMA));
+
+    private EmployeeEventAvroCodec() {
+    }
+
+    static byte[] encode(final EmployeeEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        try {
+            WRITER.write(toRecord(event), encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new SerializationException("error encoding employee event", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a record written with the schema of {@code eventVersion}, records without a version are read
+     * with the current schema.
+     */
+    static EmployeeEvent decode(final byte[] data, final String eventVersion) {
+        DatumReader<GenericRecord> reader =
+                READERS.get(eventVersion == null ? EventPublisher.EVENT_VERSION : eventVersion);
+        if (reader == null) {
+            throw new SerializationException("unknown employee event version " + eventVersion);
+        }
+        try {
+            return fromRecord(reader.read(null, DecoderFactory.get().binaryDecoder(data, null)));
+        } catch (IOException e) {
+            throw new SerializationException("error decoding employee event", e);
+        }
+    }
+
+    private static GenericRecord toRecord(final EmployeeEvent event) {
+        EmployeeDto employeeDto = event.getEmployeeData();
+        GenericRecord employee = new GenericData.Record(EMPLOYEE_SCHEMA);
+        employee.put("employee_id", new GenericData.Fixed(EMPLOYEE_ID_SCHEMA, toBytes(employeeDto.getEmployeeId())));
+        employee.put("first_name", employeeDto.getFirstName());
+        employee.put("last_name", employeeDto.getLastName());
+        employee.put("email", employeeDto.getEmail());
+        employee.put("birthday", (int) employeeDto.getBirthday().toEpochDay());
+        employee.put("hobbies", employeeDto.getHobbies() == null ? List.of() : employeeDto.getHobbies());
+        employee.put("version", employeeDto.getVersion());
+
+        GenericRecord record = new GenericData.Record(SCHEMA);
+        record.put(EventPublisher.EVENT_TYPE_FIELD_NAME,
+                new GenericData.EnumSymbol(EVENT_TYPE_SCHEMA, event.getEventType().name()));
+        record.put(EventPublisher.EVENT_DATA_FIELD_NAME, employee);
+        return record;
+    }
+
+    private static EmployeeEvent fromRecord(final GenericRecord record) {
+        GenericRecord employee = (GenericRecord) record.get(EventPublisher.EVENT_DATA_FIELD_NAME);
+        EmployeeDto employeeDto = new EmployeeDto();
+        employeeDto.setEmployeeId(toUuid(((GenericData.Fixed) employee.get("employee_id")).bytes()));
+        employeeDto.setFirstName(employee.get("first_name").toString());
+        employeeDto.setLastName(employee.get("last_name").toString());
+        employeeDto.setEmail(employee.get("email").toString());
+        employeeDto.setBirthday(LocalDate.ofEpochDay((Integer) employee.get("birthday")));
+        Collection<?> hobbies = (Collection<?>) employee.get("hobbies");
+        Set<String> hobbyNames = new HashSet<>(hobbies.size() * 4 / 3 + 1);
+        hobbies.forEach(hobby -> hobbyNames.add(hobby.toString()));
+        employeeDto.setHobbies(hobbyNames);
+        employeeDto.setVersion((Long) employee.get("version"));
+
+        EventType eventType = EventType.valueOf(record.get(EventPublisher.EVENT_TYPE_FIELD_NAME).toString());
+        return new EmployeeEvent(eventType, employeeDto);
+    }
+
+    private static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID toUuid(final byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static Schema loadSchema(final String resource) {
+        try (InputStream in = EmployeeEventAvroCodec.class.getResourceAsStream(resource)) {
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("error loading the employee event schema", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package company.employee.util;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Consumer value deserializer of the employee events, picks the encoding from the content type header
+ * written by {@link EmployeeEventSerializer}. Avro records are read with the schema of their event version header.
+ */
+public class EmployeeEventDeserializer implements Deserializer<EmployeeEvent> {
+    private final JsonDeserializer<EmployeeEvent> jsonDeserializer = new JsonDeserializer<>(EmployeeEvent.class, false);
+
+    @Override
+    public EmployeeEvent deserialize(final String topic, final byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public EmployeeEvent deserialize(final String topic, final Headers headers, final byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return switch (EmployeeEventEncoding.fromHeaders(headers)) {
+            case JSON -> jsonDeserializer.deserialize(topic, data);
+            case AVRO -> EmployeeEventAvroCodec.decode(data, eventVersion(headers));
+        };
+    }
+
+    private static String eventVersion(final Headers headers) {
+        Header header = headers.lastHeader(EventPublisher.EVENT_VERSION_HEADER);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,48 @@
+package company.employee.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Encodings of the employee events, the encoding of a record is sent in the {@link #CONTENT_TYPE_HEADER}
+ * header so consumers can read both while producers are switched over.
+ */
+public enum EmployeeEventEncoding {
+    JSON("application/json"),
+    AVRO("avro/binary");
+
+    public static final String CONTENT_TYPE_HEADER = "content_type";
+
+    private final byte[] contentType;
+
+    EmployeeEventEncoding(final String contentType) {
+        this.contentType = contentType.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static EmployeeEventEncoding of(final String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    void addHeader(final Headers headers) {
+        headers.remove(CONTENT_TYPE_HEADER).add(CONTENT_TYPE_HEADER, contentType);
+    }
+
+    /**
+     * Records without the header were written before binary encoding existed and are JSON.
+     */
+    static EmployeeEventEncoding fromHeaders(final Headers headers) {
+        Header header = headers.lastHeader(CONTENT_TYPE_HEADER);
+        if (header == null) {
+            return JSON;
+        }
+        return Arrays.stream(values())
+                .filter(encoding -> Arrays.equals(encoding.contentType, header.value()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "unknown employee event content type " + new String(header.value(), StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,55 @@
+package company.employee.util;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Producer value serializer of the employee events, writes JSON or Avro depending on the
+ * {@value #ENCODING_CONFIG} producer property and records the encoding in the content type header.
+ */
+public class EmployeeEventSerializer implements Serializer<EmployeeEvent> {
+    public static final String ENCODING_CONFIG = "employee.event.encoding";
+
+    private final JsonSerializer<EmployeeEvent> jsonSerializer = new JsonSerializer<EmployeeEvent>().noTypeInfo();
+    private EmployeeEventEncoding encoding = EmployeeEventEncoding.JSON;
+
+    public EmployeeEventSerializer() {
+    }
+
+    public EmployeeEventSerializer(final EmployeeEventEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        Object configuredEncoding = configs.get(ENCODING_CONFIG);
+        if (configuredEncoding != null) {
+            encoding = EmployeeEventEncoding.of(configuredEncoding.toString());
+        }
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final EmployeeEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return switch (encoding) {
+            case JSON -> jsonSerializer.serialize(topic, event);
+            case AVRO -> EmployeeEventAvroCodec.encode(event);
+        };
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Headers headers, final EmployeeEvent event) {
+        encoding.addHeader(headers);
+        return serialize(topic, event);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -1,35 +1,208 @@
 package company.employee.util;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import company.employee.domain.OutboxEvent;
 import company.employee.dto.EmployeeDto;
-import lombok.RequiredArgsConstructor;
+import company.employee.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Employee events go through the transactional outbox: publishing stores the event in the transaction of
+ * the caller, {@link OutboxRelay} sends committed events to Kafka. The trace context of the caller is stored
+ * with the event, the send continues that trace and passes it on in the record headers.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class EventPublisher {
     public static final String EVENT_TYPE_FIELD_NAME = "event_type";
     public static final String EVENT_DATA_FIELD_NAME = "employee_data";
+    public static final String EVENT_TYPE_HEADER = "event_type";
+    public static final String EVENT_VERSION_HEADER = "event_version";
+    public static final String EVENT_VERSION = "2";
+    public static final String SEND_METRIC_NAME = "employee.events.send";
+    private static final TypeReference<Map<String, String>> TRACE_CONTEXT_TYPE = new TypeReference<>() {
+    };
     @Value("${topics.employee-events}")
     private String employeeTopicName;
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    /**
+     * Without tracing, e.g. in tests, events are published without trace context.
+     */
+    public EventPublisher(
+            final KafkaTemplate<String, Object> kafkaTemplate,
+            final OutboxEventRepository outboxEventRepository,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry,
+            final ObjectProvider<Tracer> tracer,
+            final ObjectProvider<Propagator> propagator) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
 
+    @Observed(name = "employee.events.publish")
     public void publishEmployeeEvent(final EventType eventType, final EmployeeDto employeeDto) {
-        log.info("publish event: {} for {}", employeeDto);
-        kafkaTemplate.send(employeeTopicName, createEvent(eventType, employeeDto));
+        log.info("publish event: {} for {}", eventType, employeeDto);
+        outboxEventRepository.save(createOutboxEvent(eventType, employeeDto, currentTraceContext()));
+    }
+
+    @Observed(name = "employee.events.publish")
+    public void publishEmployeeEvents(final EventType eventType, final Collection<EmployeeDto> employeeDtos) {
+        log.info("publish {} events: {}", employeeDtos.size(), eventType);
+        String traceContext = currentTraceContext();
+        outboxEventRepository.saveAll(employeeDtos.stream()
+                .map(employeeDto -> createOutboxEvent(eventType, employeeDto, traceContext))
+                .toList());
+    }
+
+    CompletableFuture<SendResult<String, Object>> send(final OutboxEvent outboxEvent) {
+        final EmployeeDto employeeDto;
+        final Map<String, String> traceContext;
+        try {
+            employeeDto = objectMapper.readValue(outboxEvent.getPayload(), EmployeeDto.class);
+            traceContext = outboxEvent.getTraceContext() == null
+                    ? Map.of()
+                    : objectMapper.readValue(outboxEvent.getTraceContext(), TRACE_CONTEXT_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("error reading outbox event " + outboxEvent.getId(), e);
+        }
+        // without a stored context the send starts a trace of its own
+        Span span = propagator.extract(traceContext, Map::get)
+                .name(employeeTopicName + " send")
+                .kind(Span.Kind.PRODUCER)
+                .tag("messaging.destination.name", employeeTopicName)
+                .start();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            ProducerRecord<String, Object> record = createRecord(outboxEvent.getEventType(), employeeDto);
+            propagator.inject(span.context(), record.headers(), EventPublisher::setHeader);
+            return kafkaTemplate.send(record)
+                    .whenComplete((result, e) -> completeSend(sample, span, e));
+        } catch (RuntimeException e) {
+            completeSend(sample, span, e);
+            throw e;
+        }
+    }
+
+    private void completeSend(final Timer.Sample sample, final Span span, final Throwable e) {
+        recordSend(sample, e);
+        if (e != null) {
+            span.error(e);
+        }
+        span.end();
+    }
+
+    /**
+     * Send latency until the broker acknowledged the record, failed sends are tagged with the root cause.
+     */
+    private void recordSend(final Timer.Sample sample, final Throwable e) {
+        sample.stop(Timer.builder(SEND_METRIC_NAME)
+                .description("time until Kafka acknowledged an employee event")
+                .tag("result", e == null ? "success" : "failure")
+                .tag("exception", e == null ? "none" : rootCause(e).getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+
+    private static Throwable rootCause(final Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Records are keyed by the employee id, so all events of an employee land on the same partition and are
+     * consumed by a single consumer of a group. That is not the order of the changes: the relay may send the
+     * events of an employee out of order or twice, consumers apply them by version and keep deletes as
+     * tombstones.
+     */
+    private ProducerRecord<String, Object> createRecord(final EventType eventType, final EmployeeDto employeeDto) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(
+                employeeTopicName,
+                employeeDto.getEmployeeId().toString(),
+                createEvent(eventType, employeeDto));
+        record.headers()
+                .add(EVENT_TYPE_HEADER, eventType.name().getBytes(StandardCharsets.UTF_8))
+                .add(EVENT_VERSION_HEADER, EVENT_VERSION.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static void setHeader(final Headers headers, final String name, final String value) {
+        headers.remove(name).add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OutboxEvent createOutboxEvent(
+            final EventType eventType,
+            final EmployeeDto employeeDto,
+            final String traceContext) {
+        try {
+            return new OutboxEvent(
+                    null,
+                    Instant.now(),
+                    eventType,
+                    employeeDto.getEmployeeId(),
+                    objectMapper.writeValueAsString(employeeDto),
+                    traceContext);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("error writing employee event", e);
+        }
+    }
+
+    /**
+     * @return the propagation headers of the current trace as JSON, null outside of a trace
+     */
+    private String currentTraceContext() {
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context == null) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<>();
+        propagator.inject(context, headers, Map::put);
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("error writing trace context", e);
+        }
     }
 
-    private Map<String, ?> createEvent(final EventType eventType, final EmployeeDto employeeDto) {
-        return Map.of(
-                EVENT_TYPE_FIELD_NAME, eventType,
-                EVENT_DATA_FIELD_NAME, employeeDto);
+    static EmployeeEvent createEvent(final EventType eventType, final EmployeeDto employeeDto) {
+        return new EmployeeEvent(eventType, employeeDto);
     }
 
     public enum EventType {
@@ -0,0 +1,54 @@
+package company.employee.util;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Opens the scope of the request observation on the async request executor while a streaming task runs, so the
+ * service and repository spans of a streamed response belong to the trace of the request.
+ */
+public class ObservationScopeInterceptor implements CallableProcessingInterceptor {
+    private static final String OBSERVATION_ATTRIBUTE = ObservationScopeInterceptor.class.getName() + ".observation";
+    private static final String SCOPE_ATTRIBUTE = ObservationScopeInterceptor.class.getName() + ".scope";
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservationScopeInterceptor(final ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation != null) {
+            request.setAttribute(OBSERVATION_ATTRIBUTE, observation, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(final NativeWebRequest request, final Callable<T> task) {
+        Observation observation = (Observation) request.getAttribute(
+                OBSERVATION_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (observation != null) {
+            request.setAttribute(SCOPE_ATTRIBUTE, observation.openScope(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(final NativeWebRequest request, final Callable<T> task, final Object concurrentResult) {
+        Observation.Scope scope = (Observation.Scope) request.getAttribute(
+                SCOPE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (scope != null) {
+            request.removeAttribute(SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            scope.close();
+        }
+    }
+}
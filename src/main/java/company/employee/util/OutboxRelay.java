@@ -0,0 +1,113 @@
+package company.employee.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import company.employee.domain.OutboxEvent;
+import company.employee.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains committed employee events from the outbox to Kafka in batches. A batch is removed from the outbox
+ * only after Kafka acknowledged all of its records, a failed batch is retried with the next poll, so events
+ * are delivered at least once. Events are not guaranteed to arrive in outbox order: instances relay disjoint
+ * batches in parallel, and a retried batch resends records that were already acknowledged. Consumers order
+ * the events of an employee by its version and remember the version of a delete.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", matchIfMissing = true)
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayedEvents;
+
+    public OutboxRelay(
+            final OutboxEventRepository outboxEventRepository,
+            final EventPublisher eventPublisher,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size}") final int batchSize,
+            @Value("${app.outbox.send-timeout}") final Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+
+        Gauge.builder("employee.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("events waiting in the outbox after the last relay run")
+                .register(meterRegistry);
+        TimeGauge.builder("employee.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("age of the oldest event waiting in the outbox")
+                .register(meterRegistry);
+        relayedEvents = Counter.builder("employee.outbox.relayed")
+                .description("events sent from the outbox to Kafka")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("error relaying employee events, retrying with the next poll", e);
+        } finally {
+            updateLag();
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findNextBatch(PageRequest.ofSize(batchSize));
+        if (outboxEvents.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture<?>[] sends = outboxEvents.stream()
+                .map(eventPublisher::send)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while sending employee events", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("error sending employee events", e);
+        }
+        outboxEventRepository.deleteAllInBatch(outboxEvents);
+        relayedEvents.increment(outboxEvents.size());
+        log.debug("relayed {} employee events", outboxEvents.size());
+        return outboxEvents.size();
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxEventRepository.count());
+        lagMillis.set(outboxEventRepository.findOldestCreatedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, Instant.now()).toMillis()))
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,63 @@
+package company.employee.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Opaque continuation token for keyset pagination. The token wraps the internal id of the last
+ * employee on a page, for pages sorted by another column also the value of that column, clients must
+ * treat it as an opaque string.
+ */
+public final class PageToken {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Position after the last employee of a page sorted by a column and the id.
+     */
+    public record Position(String sortKey, long lastId) {
+    }
+
+    private PageToken() {
+    }
+
+    public static String encode(final long lastId) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    public static String encode(final Position position) {
+        byte[] sortKey = position.sortKey().getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES + sortKey.length)
+                .putLong(position.lastId())
+                .put(sortKey)
+                .array());
+    }
+
+    public static Optional<Long> decode(final String token) {
+        try {
+            byte[] bytes = DECODER.decode(token);
+            if (bytes.length != Long.BYTES) {
+                return Optional.empty();
+            }
+            return Optional.of(ByteBuffer.wrap(bytes).getLong());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<Position> decodePosition(final String token) {
+        try {
+            byte[] bytes = DECODER.decode(token);
+            if (bytes.length < Long.BYTES) {
+                return Optional.empty();
+            }
+            return Optional.of(new Position(
+                    new String(bytes, Long.BYTES, bytes.length - Long.BYTES, StandardCharsets.UTF_8),
+                    ByteBuffer.wrap(bytes).getLong()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
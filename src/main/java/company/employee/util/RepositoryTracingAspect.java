@@ -0,0 +1,62 @@
+package company.employee.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.repository.Repository;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Traces every repository call, including {@code flush}, as a child span named after the repository interface
+ * and the method, e.g. {@code EmployeeRepository#findByEmployeeId}. Calls outside of a trace, like the polls of
+ * the outbox relay, are not traced. Repository latencies are already timed by Spring Data, so no timer is
+ * recorded here.
+ */
+@Aspect
+public class RepositoryTracingAspect {
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryTracingAspect(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepositoryCall(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentSpan() == null) {
+            return joinPoint.proceed();
+        }
+        Span span = tracer.nextSpan()
+                .name(repositoryName(joinPoint) + "#" + joinPoint.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Inherited methods like {@code save} are declared by Spring Data, the name is taken from the repository
+     * interface implemented by the proxy instead.
+     */
+    private String repositoryName(final ProceedingJoinPoint joinPoint) {
+        return repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), proxyClass -> {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())) {
+                if (Repository.class.isAssignableFrom(type)) {
+                    return type.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+    }
+}
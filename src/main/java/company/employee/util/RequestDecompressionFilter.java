@@ -0,0 +1,213 @@
+package company.employee.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Inflates request bodies sent with {@code Content-Encoding: gzip}, so large batch writes can be uploaded
+ * compressed. Other encodings are rejected with 415 Unsupported Media Type and an {@code Accept-Encoding}
+ * header. The inflated body is limited, a body inflating beyond the limit is rejected with 413 Payload Too Large.
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    public static final String GZIP = "gzip";
+    private static final String IDENTITY = "identity";
+
+    private final long maxInflatedSize;
+
+    public RequestDecompressionFilter(final long maxInflatedSize) {
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null
+                || contentEncoding.isBlank()
+                || contentEncoding.strip().equalsIgnoreCase(IDENTITY)) {
+            filterChain.doFilter(request, response);
+        } else if (contentEncoding.strip().equalsIgnoreCase(GZIP)) {
+            filterChain.doFilter(new InflatingRequest(request, maxInflatedSize), response);
+        } else {
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+    }
+
+    /**
+     * Thrown while reading a body inflating beyond the limit. The message converters wrap it, the status is
+     * resolved from the cause.
+     */
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public static class InflatedSizeExceededException extends IOException {
+        InflatedSizeExceededException(final long maxInflatedSize) {
+            super("inflated request body exceeds " + maxInflatedSize + " bytes");
+        }
+    }
+
+    /**
+     * Hides the content encoding and the length of the compressed body from the handlers.
+     */
+    private static final class InflatingRequest extends HttpServletRequestWrapper {
+        private static final List<String> HIDDEN_HEADERS = List.of(
+                HttpHeaders.CONTENT_ENCODING.toLowerCase(Locale.ROOT),
+                HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT));
+
+        private final long maxInflatedSize;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        InflatingRequest(final HttpServletRequest request, final long maxInflatedSize) {
+            super(request);
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called for this request");
+            }
+            return inflatedStream();
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                if (inputStream != null) {
+                    throw new IllegalStateException("getInputStream() has already been called for this request");
+                }
+                Charset charset = getCharacterEncoding() == null
+                        ? StandardCharsets.UTF_8
+                        : Charset.forName(getCharacterEncoding());
+                reader = new BufferedReader(new InputStreamReader(inflatedStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(final String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(final String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isHidden(name))
+                    .toList());
+        }
+
+        private ServletInputStream inflatedStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream compressed = getRequest().getInputStream();
+                inputStream = new InflatedInputStream(new GZIPInputStream(compressed), maxInflatedSize);
+            }
+            return inputStream;
+        }
+
+        private static boolean isHidden(final String name) {
+            return HIDDEN_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Supports blocking reads only: the inflater reads the compressed stream on demand, starting with the gzip
+     * header when the stream is created, so data available on the compressed stream says nothing about inflated
+     * data being available. The handlers of the service read request bodies blocking.
+     */
+    private static final class InflatedInputStream extends ServletInputStream {
+        private final InputStream inflated;
+        private final long maxInflatedSize;
+        private long inflatedSize;
+        private boolean finished;
+
+        InflatedInputStream(final InputStream inflated, final long maxInflatedSize) {
+            this.inflated = inflated;
+            this.maxInflatedSize = maxInflatedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = inflated.read();
+            count(b == -1 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int read = inflated.read(b, off, len);
+            count(read);
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(final ReadListener readListener) {
+            throw new UnsupportedOperationException(
+                    "non-blocking reads of compressed request bodies are not supported");
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflated.close();
+        }
+
+        private void count(final int read) throws IOException {
+            if (read == -1) {
+                finished = true;
+            } else {
+                inflatedSize += read;
+                if (inflatedSize > maxInflatedSize) {
+                    throw new InflatedSizeExceededException(maxInflatedSize);
+                }
+            }
+        }
+    }
+}
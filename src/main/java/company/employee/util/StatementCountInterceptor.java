@@ -0,0 +1,105 @@
+package company.employee.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the SQL statements of a request as the {@value #METRIC_NAME} summary, tagged with the method and the
+ * route. The count follows the request to the async dispatch, to streaming tasks and, through
+ * {@link StatementCounter#propagate}, to the write executor.
+ */
+public class StatementCountInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+    public static final String METRIC_NAME = "employee.http.statements";
+    private static final String COUNT_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".count";
+    private static final String SCOPE_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".scope";
+    private static final String TASK_SCOPE_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".taskScope";
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountInterceptor(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler) {
+        // called again on the async dispatch, which continues the count of the request
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = new AtomicInteger();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        request.setAttribute(SCOPE_ATTRIBUTE, StatementCounter.bind(count));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler) {
+        closeScope(request);
+    }
+
+    @Override
+    public void afterCompletion(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler,
+            final Exception ex) {
+        closeScope(request);
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", route == null ? UNKNOWN_ROUTE : route.toString())
+                .register(meterRegistry)
+                .record(count.get());
+    }
+
+    @Override
+    public <T> void preProcess(final NativeWebRequest request, final Callable<T> task) {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (count != null) {
+            request.setAttribute(
+                    TASK_SCOPE_ATTRIBUTE,
+                    StatementCounter.bind(count),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(final NativeWebRequest request, final Callable<T> task, final Object concurrentResult) {
+        StatementCounter.Scope scope = (StatementCounter.Scope) request.getAttribute(
+                TASK_SCOPE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (scope != null) {
+            request.removeAttribute(TASK_SCOPE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            scope.close();
+        }
+    }
+
+    private static void closeScope(final HttpServletRequest request) {
+        StatementCounter.Scope scope = (StatementCounter.Scope) request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope != null) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            scope.close();
+        }
+    }
+}
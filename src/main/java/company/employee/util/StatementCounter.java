@@ -0,0 +1,62 @@
+package company.employee.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on a thread while a count is bound to the thread, configured as
+ * {@code hibernate.session_factory.statement_inspector}. Threads without a bound count pay a single thread
+ * local lookup per statement.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(final String sql) {
+        AtomicInteger count = CURRENT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Counts the statements of the current thread into the given count until the scope is closed, the scope
+     * has to be closed on the same thread.
+     */
+    public static Scope bind(final AtomicInteger count) {
+        AtomicInteger previous = CURRENT.get();
+        CURRENT.set(count);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return the supplier counting its statements into the count bound to the calling thread, for work handed
+     *         over to another thread
+     */
+    public static <T> Supplier<T> propagate(final Supplier<T> supplier) {
+        AtomicInteger count = CURRENT.get();
+        if (count == null) {
+            return supplier;
+        }
+        return () -> {
+            try (Scope scope = bind(count)) {
+                return supplier.get();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,5 +1,6 @@
 package company.employee.util;
 
+import java.security.SecureRandom;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
@@ -9,8 +10,23 @@ import lombok.RequiredArgsConstructor;
 @Component
 @RequiredArgsConstructor
 public class UuidSource {
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     public UUID randomUUID() {
         return UUID.randomUUID();
     }
+
+    /**
+     * Version 7 UUID (RFC 9562): 48 bit Unix timestamp in milliseconds followed by 74 random bits, so ids
+     * generated later sort after earlier ones and are inserted at the right edge of an index.
+     */
+    public UUID timeOrderedUUID() {
+        final long timestamp = System.currentTimeMillis();
+        final long mostSigBits = (timestamp << 16)
+                | 0x7000L
+                | (RANDOM.nextLong() & 0x0FFFL);
+        final long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
 }
@@ -0,0 +1,80 @@
+package company.employee.util;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import company.employee.dto.EmployeeDto;
+
+/**
+ * Employee cache that never replaces a cached employee with an older version of it. A reader missing the cache
+ * may load the employee before a concurrent update or delete commits and put it afterwards, events of other
+ * instances may be applied late or out of order, the version decides which one is kept.
+ * <p>
+ * A deleted employee is cached as a {@link Tombstone} of its last version until the entry expires like any
+ * other, it reads as a miss and rejects every put of that version or an older one.
+ */
+public class VersionedEmployeeCache extends CaffeineCache {
+
+    /**
+     * Marks a deleted employee, {@code version} is the version the employee had when it was deleted.
+     */
+    public record Tombstone(Long version) {
+    }
+
+    public VersionedEmployeeCache(final String name, final Cache<Object, Object> cache, final boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(final Object key) {
+        Object value = super.lookup(key);
+        return value instanceof Tombstone ? null : value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        getNativeCache().asMap().merge(
+                key,
+                toStoreValue(value),
+                (cached, written) -> isOlder(written, cached) ? cached : written);
+    }
+
+    private static boolean isOlder(final Object written, final Object cached) {
+        Long writtenVersion = version(written);
+        Long cachedVersion = version(cached);
+        if (cached instanceof Tombstone && written instanceof EmployeeDto) {
+            // the deleted version itself is rejected, a tombstone without a version rejects every version
+            return cachedVersion == null || writtenVersion == null || writtenVersion <= cachedVersion;
+        }
+        return writtenVersion != null && cachedVersion != null && writtenVersion < cachedVersion;
+    }
+
+    private static Long version(final Object value) {
+        if (value instanceof EmployeeDto employeeDto) {
+            return employeeDto.getVersion();
+        }
+        return value instanceof Tombstone tombstone ? tombstone.version() : null;
+    }
+}
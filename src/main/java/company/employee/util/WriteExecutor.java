@@ -0,0 +1,83 @@
+package company.employee.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Runs modifying requests on a bounded pool instead of the servlet container threads, so a burst of writes
+ * waits in the queue of this pool and cannot take the threads serving reads. Once the queue is full further
+ * writes are rejected with a {@link TaskRejectedException}. With {@code app.http.writes.async} disabled writes
+ * run on the calling thread.
+ * <p>
+ * Deliberately not a {@link java.util.concurrent.Executor} bean, that would replace the application task
+ * executor Spring Boot configures for async request processing.
+ */
+@Component
+public class WriteExecutor implements DisposableBean {
+    private static final String NAME = "employee.writes";
+
+    private final ThreadPoolTaskExecutor executor;
+    private final ObservationRegistry observationRegistry;
+
+    public WriteExecutor(
+            @Value("${app.http.writes.async}") final boolean async,
+            @Value("${app.http.writes.threads}") final int threads,
+            @Value("${app.http.writes.queue-capacity}") final int queueCapacity,
+            final MeterRegistry meterRegistry,
+            final ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+        if (!async) {
+            executor = null;
+            return;
+        }
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("employee-write-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), NAME, List.of()).bindTo(meterRegistry);
+    }
+
+    /**
+     * The statements of the write are counted for the calling request, its spans belong to the trace of the
+     * calling request.
+     *
+     * @throws TaskRejectedException if the queue is full
+     */
+    public <T> CompletableFuture<T> supply(final Supplier<T> write) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(write.get());
+        }
+        return CompletableFuture.supplyAsync(StatementCounter.propagate(propagateObservation(write)), executor);
+    }
+
+    private <T> Supplier<T> propagateObservation(final Supplier<T> write) {
+        Observation observation = observationRegistry.getCurrentObservation();
+        if (observation == null) {
+            return write;
+        }
+        return () -> observation.scoped(write);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
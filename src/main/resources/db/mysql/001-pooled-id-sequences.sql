@@ -0,0 +1,16 @@
+-- Moves employee and hobby ids to the pooled-lo sequences employees_seq and hobbies_seq.
+-- MySQL has no native sequences, Hibernate emulates them with single row tables.
+-- Run with all instances stopped, before starting the new version.
+
+CREATE TABLE IF NOT EXISTS employees_seq (next_val BIGINT);
+DELETE FROM employees_seq;
+INSERT INTO employees_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM employees;
+
+CREATE TABLE IF NOT EXISTS hobbies_seq (next_val BIGINT);
+DELETE FROM hobbies_seq;
+INSERT INTO hobbies_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM hobbies;
+
+-- the per-entity sequence tables of the previous unnamed generators are not used anymore, Hibernate named them
+-- Employee_SEQ and Hobby_SEQ and the Spring Boot naming strategy lower cased them
+DROP TABLE IF EXISTS employee_seq;
+DROP TABLE IF EXISTS hobby_seq;
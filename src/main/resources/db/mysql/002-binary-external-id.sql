@@ -0,0 +1,12 @@
+-- Converts employees.external_id from VARCHAR(36) to BINARY(16).
+-- Run with all instances stopped, before starting the new version. Deployments that can't migrate yet
+-- keep the text column by setting spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type=CHAR.
+
+ALTER TABLE employees ADD COLUMN external_id_bin BINARY(16) NULL;
+UPDATE employees SET external_id_bin = UUID_TO_BIN(external_id);
+
+-- dropping the column drops its unique index as well
+ALTER TABLE employees DROP COLUMN external_id;
+ALTER TABLE employees RENAME COLUMN external_id_bin TO external_id;
+ALTER TABLE employees MODIFY external_id BINARY(16) NOT NULL;
+ALTER TABLE employees ADD CONSTRAINT uk_employees_external_id UNIQUE (external_id);
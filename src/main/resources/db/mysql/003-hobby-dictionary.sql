@@ -0,0 +1,32 @@
+-- Moves hobbies from the per-employee hobbies table to the shared hobby_dictionary table and the
+-- employee_hobbies join table. Hobbies are deduplicated by their exact UTF-8 bytes.
+-- Run with all instances stopped, before starting the new version.
+
+CREATE TABLE hobby_dictionary (
+    id BIGINT NOT NULL,
+    hobby VARCHAR(255) NOT NULL,
+    hobby_key VARBINARY(1020) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_hobby_dictionary_hobby_key UNIQUE (hobby_key)
+);
+
+CREATE TABLE employee_hobbies (
+    employee_id BIGINT NOT NULL,
+    hobby_id BIGINT NOT NULL,
+    PRIMARY KEY (employee_id, hobby_id),
+    CONSTRAINT fk_employee_hobbies_employee FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fk_employee_hobbies_hobby FOREIGN KEY (hobby_id) REFERENCES hobby_dictionary (id)
+);
+
+-- the lowest id of every distinct hobby becomes its dictionary id, hobbies_seq stays valid
+INSERT INTO hobby_dictionary (id, hobby, hobby_key)
+SELECT MIN(id), ANY_VALUE(hobby), CAST(CONVERT(hobby USING utf8mb4) AS BINARY)
+FROM hobbies
+GROUP BY CAST(CONVERT(hobby USING utf8mb4) AS BINARY);
+
+INSERT INTO employee_hobbies (employee_id, hobby_id)
+SELECT DISTINCT h.employee_id, d.id
+FROM hobbies h
+JOIN hobby_dictionary d ON d.hobby_key = CAST(CONVERT(h.hobby USING utf8mb4) AS BINARY);
+
+DROP TABLE hobbies;
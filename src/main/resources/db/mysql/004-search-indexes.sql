@@ -0,0 +1,11 @@
+-- Adds the email_domain column and the indexes used by the search endpoints.
+-- Run with all instances stopped, before starting the new version. Without the script Hibernate creates
+-- the column and the indexes, but the domain of existing employees stays empty.
+
+ALTER TABLE employees ADD COLUMN email_domain VARCHAR(255) NULL;
+UPDATE employees SET email_domain = LOWER(SUBSTRING_INDEX(email, '@', -1)) WHERE email LIKE '%@%';
+
+CREATE INDEX idx_employees_last_name ON employees (last_name);
+CREATE INDEX idx_employees_email_domain ON employees (email_domain);
+CREATE INDEX idx_employees_birthday ON employees (birthday);
+CREATE INDEX idx_employee_hobbies_hobby_id ON employee_hobbies (hobby_id, employee_id);
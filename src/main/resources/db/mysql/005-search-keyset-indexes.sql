@@ -0,0 +1,9 @@
+-- Replaces the last name and birthday indexes by (column, id) indexes: searches by last name prefix and by
+-- birthday page in column and id order and read each page as an index range in that order.
+-- Run with all instances stopped, before starting the new version. Without the script Hibernate creates the new
+-- indexes, but the former ones are kept and maintained on every write.
+
+CREATE INDEX idx_employees_last_name_id ON employees (last_name, id);
+CREATE INDEX idx_employees_birthday_id ON employees (birthday, id);
+DROP INDEX idx_employees_last_name ON employees;
+DROP INDEX idx_employees_birthday ON employees;
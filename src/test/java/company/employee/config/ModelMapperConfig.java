@@ -1,17 +1,17 @@
 package company.employee.config;
 
 import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
 import company.employee.domain.Employee;
 import company.employee.domain.Hobby;
 import company.employee.dto.EmployeeDataDto;
 
-@Configuration
+/**
+ * ModelMapper configuration replaced by {@link company.employee.mapper.EmployeeMapper}, kept for the tests
+ * and the benchmark comparing both. It is not a bean, the service does not use ModelMapper.
+ */
 public class ModelMapperConfig {
 
-    @Bean
     public ModelMapper modelMapper() {
         ModelMapper mapper = new ModelMapper();
         mapper.getConfiguration().setCollectionsMergeEnabled(false);
@@ -1,32 +1,51 @@
 package company.employee.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
@@ -34,24 +53,44 @@ import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import company.employee.dto.BatchItemResultDto;
+import company.employee.dto.BatchItemResultDto.Status;
+import company.employee.dto.EmployeeBatchCreateDto;
+import company.employee.dto.EmployeeBatchDeleteDto;
+import company.employee.dto.EmployeeBatchUpdateDto;
 import company.employee.dto.EmployeeDataDto;
 import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeePageDto;
+import company.employee.dto.EmployeePatchDto;
 import company.employee.util.EmployeeDataGenerator;
+import company.employee.util.EventPublisher;
 import company.employee.util.EventPublisher.EventType;
+import company.employee.util.RecentSpansExporter;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+// metrics export and tracing are disabled in tests otherwise
+@AutoConfigureObservability
 @EmbeddedKafka(topics = "${topics.employee-events}", partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
 @DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
 public class EmployeeControllerIT {
     private static final String EMPLOYEES_ENDPOINT = "/employees";
     private static final String EMPLOYEES_ID_ENDPOINT = EMPLOYEES_ENDPOINT + "/%s";
+    private static final String EMPLOYEES_BATCH_ENDPOINT = EMPLOYEES_ENDPOINT + "/batch";
+    private static final String EMPLOYEES_SEARCH_ENDPOINT = EMPLOYEES_ENDPOINT + "/search";
+    private static final String EMPLOYEES_SEARCH_INDEX_ENDPOINT = EMPLOYEES_SEARCH_ENDPOINT + "/index";
     private static final String EVENT_TYPE_KEY = "event_type";
     private static final String EVENT_DATA_KEY = "employee_data";
 
@@ -73,6 +112,12 @@ public class EmployeeControllerIT {
     @Autowired
     private EmbeddedKafkaBroker kafkaBroker;
 
+    @Autowired
+    private RecentSpansExporter recentSpans;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
     private Consumer<String, String> consumer;
 
     @BeforeEach
@@ -86,7 +131,7 @@ public class EmployeeControllerIT {
     void testEmployeeRetrieval() throws Exception {
         EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
 
-        final String createEmployeeResponse = mockMvc.perform(post(EMPLOYEES_ENDPOINT)
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
                 .contentType(APPLICATION_JSON)
                 .header(apiKeyHeader, apiKey)
                 .content(objectMapper.writeValueAsString(employeeDataDto)))
@@ -120,7 +165,7 @@ public class EmployeeControllerIT {
         EmployeeDto employeeDtoFromGetAllResponse = employeeDtoArray[0];
         verifyEmployeeDto(employeeDtoFromGetAllResponse, employeeDataDto);
 
-        List<Map<EventType, EmployeeDto>> singleRecord = readKafkaRecords();
+        List<Map<EventType, EmployeeDto>> singleRecord = readKafkaRecords(1);
         assertThat(singleRecord)
                 .containsExactly(Map.of(EventType.CREATED, employeeDtoFromGetAllResponse));
     }
@@ -129,7 +174,7 @@ public class EmployeeControllerIT {
     void testEmployeeUpdate() throws Exception {
         EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
 
-        final String createEmployeeResponse = mockMvc.perform(post(EMPLOYEES_ENDPOINT)
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
                 .contentType(APPLICATION_JSON)
                 .header(apiKeyHeader, apiKey)
                 .content(objectMapper.writeValueAsString(employeeDataDto)))
@@ -141,7 +186,7 @@ public class EmployeeControllerIT {
 
         final UUID employeeId = employeeCreatedDto.getEmployeeId();
         final EmployeeDataDto updatedEmployeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
-        final String updatedEmployeeResponse = mockMvc.perform(put(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
+        final String updatedEmployeeResponse = performWrite(put(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
                 .contentType(APPLICATION_JSON)
                 .header(apiKeyHeader, apiKey)
                 .content(objectMapper.writeValueAsString(updatedEmployeeDataDto)))
@@ -151,7 +196,7 @@ public class EmployeeControllerIT {
         EmployeeDto updatedEmployeeDto = objectMapper.readValue(updatedEmployeeResponse, EmployeeDto.class);
         verifyEmployeeDto(updatedEmployeeDto, updatedEmployeeDataDto);
 
-        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords();
+        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords(2);
         assertThat(employeeDtosFromEvents)
                 .containsExactly(
                         Map.of(EventType.CREATED, employeeCreatedDto),
@@ -162,7 +207,7 @@ public class EmployeeControllerIT {
     void testEmployeeDelete() throws Exception {
         EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
 
-        final String createEmployeeResponse = mockMvc.perform(post(EMPLOYEES_ENDPOINT)
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
                 .contentType(APPLICATION_JSON)
                 .header(apiKeyHeader, apiKey)
                 .content(objectMapper.writeValueAsString(employeeDataDto)))
@@ -173,20 +218,573 @@ public class EmployeeControllerIT {
         verifyEmployeeDto(createdEmployeeDto, employeeDataDto);
 
         final UUID employeeId = createdEmployeeDto.getEmployeeId();
-        mockMvc.perform(delete(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
+        performWrite(delete(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
                 .contentType(APPLICATION_JSON)
                 .header(apiKeyHeader, apiKey))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
-        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords();
+        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords(2);
         assertThat(employeeDtosFromEvents)
                 .containsExactly(
                         Map.of(EventType.CREATED, createdEmployeeDto),
                         Map.of(EventType.DELETED, createdEmployeeDto));
     }
 
+    @Test
+    void testConditionalGet() throws Exception {
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final UUID employeeId = objectMapper.readValue(createEmployeeResponse, EmployeeDto.class).getEmployeeId();
+        final String employeeUrl = String.format(EMPLOYEES_ID_ENDPOINT, employeeId);
+
+        final String employeeETag = mockMvc.perform(get(employeeUrl))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        final String collectionETag = mockMvc.perform(get(EMPLOYEES_ENDPOINT))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(collectionETag).startsWith("W/");
+
+        mockMvc.perform(get(employeeUrl).header(HttpHeaders.IF_NONE_MATCH, employeeETag))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT).header(HttpHeaders.IF_NONE_MATCH, collectionETag))
+                .andExpect(status().isNotModified());
+
+        performWrite(put(employeeUrl)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(employeeUrl).header(HttpHeaders.IF_NONE_MATCH, employeeETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT).header(HttpHeaders.IF_NONE_MATCH, collectionETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testConditionalPageGet() throws Exception {
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final UUID employeeId = objectMapper.readValue(createEmployeeResponse, EmployeeDto.class).getEmployeeId();
+        final String pageUrl = EMPLOYEES_ENDPOINT + "?limit=10";
+
+        final String pageETag = mockMvc.perform(get(pageUrl))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(pageETag).startsWith("W/");
+        mockMvc.perform(get(pageUrl).header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+        // pages without ids or versions carry no ETag
+        mockMvc.perform(get(pageUrl + "&fields=email"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        performWrite(put(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk());
+
+        final String updatedPageETag = mockMvc.perform(get(pageUrl).header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedPageETag).isNotEqualTo(pageETag);
+    }
+
+    @Test
+    void testConditionalPatch() throws Exception {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(employeeDataDto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final EmployeeDto createdEmployeeDto = objectMapper.readValue(createEmployeeResponse, EmployeeDto.class);
+        final String employeeUrl = String.format(EMPLOYEES_ID_ENDPOINT, createdEmployeeDto.getEmployeeId());
+
+        EmployeePatchDto employeePatch = new EmployeePatchDto();
+        employeePatch.setLastName("patched");
+        final String patchedEmployeeResponse = performWrite(patch(employeeUrl)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(objectMapper.writeValueAsString(employeePatch)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn().getResponse().getContentAsString();
+        EmployeeDto patchedEmployeeDto = objectMapper.readValue(patchedEmployeeResponse, EmployeeDto.class);
+        assertThat(patchedEmployeeDto.getLastName()).isEqualTo("patched");
+        assertThat(patchedEmployeeDto.getFirstName()).isEqualTo(employeeDataDto.getFirstName());
+        assertThat(patchedEmployeeDto.getHobbies()).isEqualTo(employeeDataDto.getHobbies());
+
+        performWrite(patch(employeeUrl)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .content(objectMapper.writeValueAsString(employeePatch)))
+                .andDo(print())
+                .andExpect(status().isConflict());
+
+        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords(2);
+        assertThat(employeeDtosFromEvents)
+                .containsExactly(
+                        Map.of(EventType.CREATED, createdEmployeeDto),
+                        Map.of(EventType.UPDATED, patchedEmployeeDto));
+    }
+
+    @Test
+    void testEmployeeBatchCreate() throws Exception {
+        EmployeeDataDto firstEmployeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        EmployeeDataDto secondEmployeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        EmployeeDataDto duplicateEmployeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        duplicateEmployeeDataDto.setEmail(firstEmployeeDataDto.getEmail().toUpperCase());
+        EmployeeBatchCreateDto batch = new EmployeeBatchCreateDto();
+        batch.setEmployees(List.of(firstEmployeeDataDto, duplicateEmployeeDataDto, secondEmployeeDataDto));
+
+        final String batchResponse = performWrite(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        BatchItemResultDto[] results = objectMapper.readValue(batchResponse, BatchItemResultDto[].class);
+        assertThat(results)
+                .extracting(BatchItemResultDto::getIndex, BatchItemResultDto::getStatus)
+                .containsExactly(
+                        tuple(0, Status.CREATED),
+                        tuple(1, Status.DUPLICATE_EMAIL),
+                        tuple(2, Status.CREATED));
+        verifyEmployeeDto(results[0].getEmployee(), firstEmployeeDataDto);
+        verifyEmployeeDto(results[2].getEmployee(), secondEmployeeDataDto);
+
+        List<Map<EventType, EmployeeDto>> employeeDtosFromEvents = readKafkaRecords(2);
+        assertThat(employeeDtosFromEvents)
+                .containsExactly(
+                        Map.of(EventType.CREATED, results[0].getEmployee()),
+                        Map.of(EventType.CREATED, results[2].getEmployee()));
+    }
+
+    @Test
+    void testEmployeeBatchUpdate() throws Exception {
+        List<EmployeeDto> employees = createEmployees(4);
+        readKafkaRecords(4);
+        EmployeeDto renamed = copy(employees.get(0));
+        renamed.setLastName("Renamed");
+        renamed.setEmail("renamed-" + employees.get(0).getEmail());
+        EmployeeDto sameEmailInBatch = copy(employees.get(1));
+        sameEmailInBatch.setEmail(renamed.getEmail().toUpperCase());
+        EmployeeDto storedEmail = copy(employees.get(2));
+        storedEmail.setEmail(employees.get(1).getEmail());
+        EmployeeDto staleVersion = copy(employees.get(3));
+        staleVersion.setVersion(employees.get(3).getVersion() + 1);
+        EmployeeDto unknown = copy(employees.get(3));
+        unknown.setEmployeeId(UUID.randomUUID());
+        EmployeeBatchUpdateDto batch = new EmployeeBatchUpdateDto();
+        batch.setEmployees(List.of(renamed, sameEmailInBatch, storedEmail, staleVersion, unknown));
+
+        final String batchResponse = performWrite(put(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        BatchItemResultDto[] results = objectMapper.readValue(batchResponse, BatchItemResultDto[].class);
+        assertThat(results)
+                .extracting(BatchItemResultDto::getIndex, BatchItemResultDto::getStatus)
+                .containsExactly(
+                        tuple(0, Status.UPDATED),
+                        tuple(1, Status.DUPLICATE_EMAIL),
+                        tuple(2, Status.DUPLICATE_EMAIL),
+                        tuple(3, Status.VERSION_CONFLICT),
+                        tuple(4, Status.NOT_FOUND));
+        assertThat(results[0].getEmployee().getLastName()).isEqualTo("Renamed");
+        assertThat(results[0].getEmployee().getVersion()).isEqualTo(employees.get(0).getVersion() + 1);
+
+        assertThat(readKafkaRecords(1))
+                .containsExactly(Map.of(EventType.UPDATED, results[0].getEmployee()));
+    }
+
+    @Test
+    void testEmployeeBatchDelete() throws Exception {
+        List<EmployeeDto> employees = createEmployees(2);
+        readKafkaRecords(2);
+        EmployeeBatchDeleteDto batch = new EmployeeBatchDeleteDto();
+        batch.setEmployeeIds(List.of(employees.get(0).getEmployeeId(), UUID.randomUUID(),
+                employees.get(1).getEmployeeId()));
+
+        final String batchResponse = performWrite(delete(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        BatchItemResultDto[] results = objectMapper.readValue(batchResponse, BatchItemResultDto[].class);
+        assertThat(results)
+                .extracting(BatchItemResultDto::getIndex, BatchItemResultDto::getStatus)
+                .containsExactly(
+                        tuple(0, Status.DELETED),
+                        tuple(1, Status.NOT_FOUND),
+                        tuple(2, Status.DELETED));
+        mockMvc.perform(get(String.format(EMPLOYEES_ID_ENDPOINT, employees.get(0).getEmployeeId())))
+                .andExpect(status().isNotFound());
+
+        assertThat(readKafkaRecords(2))
+                .containsExactly(
+                        Map.of(EventType.DELETED, employees.get(0)),
+                        Map.of(EventType.DELETED, employees.get(1)));
+    }
+
+    @Test
+    void testEmployeeSearch() throws Exception {
+        EmployeeDataDto smith = EmployeeDataGenerator.createEmployeeDataDto();
+        smith.setLastName("Smith");
+        smith.setEmail("smith@Example.com");
+        smith.setBirthday(LocalDate.of(1980, 5, 1));
+        smith.setHobbies(Set.of("climbing", "chess"));
+        EmployeeDataDto smalley = EmployeeDataGenerator.createEmployeeDataDto();
+        smalley.setLastName("Smalley");
+        smalley.setEmail("smalley@example.org");
+        smalley.setBirthday(LocalDate.of(1990, 5, 1));
+        smalley.setHobbies(Set.of("Climbing"));
+        EmployeeDataDto jones = EmployeeDataGenerator.createEmployeeDataDto();
+        jones.setLastName("Jones");
+        jones.setEmail("jones@example.com");
+        jones.setBirthday(LocalDate.of(1985, 5, 1));
+        jones.setHobbies(Set.of("climbing"));
+        EmployeeBatchCreateDto batch = new EmployeeBatchCreateDto();
+        batch.setEmployees(List.of(smith, smalley, jones));
+        performWrite(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk());
+
+        EmployeePageDto firstClimbingPage = search("hobby=climbing&limit=1");
+        assertThat(firstClimbingPage.getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smith");
+        assertThat(firstClimbingPage.getNextPageToken()).isNotNull();
+        assertThat(search("hobby=climbing&limit=1&pageToken=" + firstClimbingPage.getNextPageToken()).getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Jones");
+        assertThat(search("lastNamePrefix=Sm").getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smalley", "Smith");
+        EmployeePageDto firstLastNamePage = search("lastNamePrefix=Sm&limit=1");
+        assertThat(firstLastNamePage.getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smalley");
+        assertThat(search("lastNamePrefix=Sm&limit=1&pageToken=" + firstLastNamePage.getNextPageToken())
+                .getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smith");
+        assertThat(search("lastNamePrefix=S%25").getEmployees()).isEmpty();
+        assertThat(search("emailDomain=EXAMPLE.com").getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smith", "Jones");
+        assertThat(search("birthdayFrom=1984-01-01&birthdayTo=1990-05-01").getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Jones", "Smalley");
+        EmployeePageDto firstBirthdayPage = search("birthdayFrom=1980-01-01&birthdayTo=1990-05-01&limit=2");
+        assertThat(firstBirthdayPage.getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smith", "Jones");
+        assertThat(search("birthdayFrom=1980-01-01&birthdayTo=1990-05-01&limit=2&pageToken="
+                + firstBirthdayPage.getNextPageToken()).getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smalley");
+
+        assertThat(search("hobby=climbing&hobby=Climbing&birthdayFrom=1981-01-01", "/index").getEmployees())
+                .extracting(EmployeeDto::getLastName)
+                .containsExactly("Smalley", "Jones");
+
+        // search pages are validated by their own content
+        final String searchUrl = EMPLOYEES_SEARCH_ENDPOINT + "?hobby=climbing&limit=1";
+        final String searchPageETag = mockMvc.perform(get(searchUrl))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(searchPageETag).startsWith("W/");
+        mockMvc.perform(get(searchUrl).header(HttpHeaders.IF_NONE_MATCH, searchPageETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(EMPLOYEES_SEARCH_ENDPOINT + "?hobby=climbing&limit=2")
+                        .header(HttpHeaders.IF_NONE_MATCH, searchPageETag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(EMPLOYEES_SEARCH_ENDPOINT + "?lastNamePrefix="))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EMPLOYEES_SEARCH_ENDPOINT + "?birthdayFrom=1990-01-01&birthdayTo=1980-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchIndex() throws Exception {
+        final List<EmployeeDto> employees = createEmployees(3);
+        final String allBirthdays = "birthdayFrom=1900-01-01&birthdayTo=" + LocalDate.now();
+
+        final EmployeePageDto firstPage = search(allBirthdays + "&limit=2", "/index");
+        assertThat(firstPage.getEmployees()).hasSize(2);
+        assertThat(firstPage.getNextPageToken()).isNotNull();
+        final EmployeePageDto lastPage = search(allBirthdays + "&limit=2&pageToken=" + firstPage.getNextPageToken(),
+                "/index");
+        assertThat(lastPage.getNextPageToken()).isNull();
+        final List<EmployeeDto> foundEmployees = new ArrayList<>(firstPage.getEmployees());
+        foundEmployees.addAll(lastPage.getEmployees());
+        assertThat(foundEmployees).containsExactlyInAnyOrderElementsOf(employees);
+
+        final EmployeeDto employee = employees.get(0);
+        assertThat(search("lastNamePrefix=" + employee.getLastName() + "&hobby="
+                + employee.getHobbies().iterator().next(), "/index").getEmployees())
+                .contains(employee);
+        // at least one criterion is required
+        mockMvc.perform(get(EMPLOYEES_SEARCH_INDEX_ENDPOINT))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EMPLOYEES_SEARCH_INDEX_ENDPOINT + "?" + allBirthdays + "&pageToken=invalid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchIndexRebuild() throws Exception {
+        createEmployees(2);
+        final String firstPageQuery = "birthdayFrom=1900-01-01&birthdayTo=" + LocalDate.now() + "&limit=1";
+        final String nextPageUrl = EMPLOYEES_SEARCH_INDEX_ENDPOINT + "?" + firstPageQuery
+                + "&pageToken=" + search(firstPageQuery, "/index").getNextPageToken();
+
+        mockMvc.perform(post(EMPLOYEES_SEARCH_INDEX_ENDPOINT + "/rebuild"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(EMPLOYEES_SEARCH_INDEX_ENDPOINT + "/rebuild").header(apiKeyHeader, "wrong-key"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(nextPageUrl))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post(EMPLOYEES_SEARCH_INDEX_ENDPOINT + "/rebuild").header(apiKeyHeader, apiKey))
+                .andExpect(status().isOk());
+        // page tokens issued before the rebuild are stale
+        mockMvc.perform(get(nextPageUrl))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFieldSelection() throws Exception {
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final EmployeeDto employee = objectMapper.readValue(createEmployeeResponse, EmployeeDto.class);
+        final Map<String, Object> expectedFields = Map.of(
+                "employeeId", employee.getEmployeeId().toString(),
+                "email", employee.getEmail());
+
+        assertThat(readFields(EMPLOYEES_ENDPOINT + "?fields=employeeId,email"))
+                .containsExactly(expectedFields);
+        assertThat(readFields(EMPLOYEES_ENDPOINT + "?stream=true&fields=employeeId,email"))
+                .containsExactly(expectedFields);
+        final String pageResponse = mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?limit=10&fields=employeeId,email"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(pageResponse, new TypeReference<Map<String, Object>>() {
+        }).get("employees")).isEqualTo(List.of(expectedFields));
+        final String employeeResponse = mockMvc.perform(get(String.format(EMPLOYEES_ID_ENDPOINT,
+                employee.getEmployeeId()) + "?fields=email"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(employeeResponse, new TypeReference<Map<String, Object>>() {
+        })).isEqualTo(Map.of("email", employee.getEmail()));
+
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?fields=employeeId,salary"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?fields=,"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?limit=10&fields=,"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPaging() throws Exception {
+        final List<EmployeeDto> employees = createEmployees(3);
+
+        final EmployeePageDto firstPage = readPage(EMPLOYEES_ENDPOINT + "?limit=2");
+        assertThat(firstPage.getEmployees()).hasSize(2);
+        assertThat(firstPage.getNextPageToken()).isNotNull();
+        final EmployeePageDto lastPage = readPage(EMPLOYEES_ENDPOINT + "?limit=2&pageToken="
+                + firstPage.getNextPageToken());
+        assertThat(lastPage.getEmployees()).hasSize(1);
+        assertThat(lastPage.getNextPageToken()).isNull();
+
+        final List<EmployeeDto> pagedEmployees = new ArrayList<>(firstPage.getEmployees());
+        pagedEmployees.addAll(lastPage.getEmployees());
+        assertThat(pagedEmployees).containsExactlyInAnyOrderElementsOf(employees);
+        // a limit below one is raised to a page of one
+        assertThat(readPage(EMPLOYEES_ENDPOINT + "?limit=0").getEmployees()).hasSize(1);
+    }
+
+    @Test
+    void testStreamedEmployees() throws Exception {
+        final List<EmployeeDto> employees = createEmployees(3);
+
+        MvcResult result = mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?stream=true")).andReturn();
+        result = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andReturn();
+
+        assertThat(objectMapper.readValue(result.getResponse().getContentAsString(), EmployeeDto[].class))
+                .containsExactlyInAnyOrderElementsOf(employees);
+    }
+
+    @Test
+    void testNdjsonEmployees() throws Exception {
+        final List<EmployeeDto> employees = createEmployees(3);
+
+        final List<String> lines = readNdjson(EMPLOYEES_ENDPOINT);
+        assertThat(lines).hasSize(3);
+        final List<EmployeeDto> streamedEmployees = new ArrayList<>();
+        for (String line : lines) {
+            streamedEmployees.add(objectMapper.readValue(line, EmployeeDto.class));
+        }
+        assertThat(streamedEmployees).containsExactlyInAnyOrderElementsOf(employees);
+
+        final List<Map<String, Object>> streamedFields = new ArrayList<>();
+        for (String line : readNdjson(EMPLOYEES_ENDPOINT + "?fields=employeeId,email")) {
+            streamedFields.add(objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {
+            }));
+        }
+        assertThat(streamedFields).containsExactlyInAnyOrderElementsOf(employees.stream()
+                .map(employee -> Map.<String, Object>of(
+                        "employeeId", employee.getEmployeeId().toString(),
+                        "email", employee.getEmail()))
+                .toList());
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(EMPLOYEES_ENDPOINT + "?limit=10"))
+                .andExpect(status().isOk());
+
+        final String metrics = mockMvc.perform(get("/actuator/prometheus").header(apiKeyHeader, apiKey))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(metrics)
+                .contains("employee_service_seconds_count{")
+                .contains("method=\"create\"")
+                .contains("employee_events_publish_seconds_count{")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("employee_http_statements_count{")
+                .contains("uri=\"/employees\"")
+                .contains("hikaricp_connections_pending{");
+    }
+
+    @Test
+    void testTracing() throws Exception {
+        final String createEmployeeResponse = performWrite(post(EMPLOYEES_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final UUID employeeId = objectMapper.readValue(createEmployeeResponse, EmployeeDto.class).getEmployeeId();
+        performWrite(put(String.format(EMPLOYEES_ID_ENDPOINT, employeeId))
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isOk());
+
+        // the relayed record carries the trace of the request in the W3C traceparent header
+        final ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 2);
+        final ConsumerRecord<String, String> updatedRecord = StreamSupport.stream(records.spliterator(), false)
+                .filter(record -> EventType.UPDATED.name().equals(
+                        new String(record.headers().lastHeader(EventPublisher.EVENT_TYPE_HEADER).value(), UTF_8)))
+                .findFirst()
+                .orElseThrow();
+        final String traceId = new String(updatedRecord.headers().lastHeader("traceparent").value(), UTF_8)
+                .split("-")[1];
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+            assertThat(recentSpans.getSpans())
+                    .anyMatch(span -> span.getTraceId().equals(traceId) && span.getKind() == SpanKind.PRODUCER);
+        });
+        final Map<String, SpanData> spans = recentSpans.getSpans().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .collect(Collectors.toMap(SpanData::getName, span -> span, (first, second) -> first));
+        assertThat(spans).containsKeys(
+                "http put /employees/{id}",
+                "EmployeeServiceImpl#update",
+                "EmployeeRepository#findByEmployeeId",
+                "EmployeeRepository#flush",
+                topic + " send");
+        assertThat(spans.get("EmployeeServiceImpl#update").getParentSpanId())
+                .isEqualTo(spans.get("http put /employees/{id}").getSpanId());
+        assertThat(spans.get("EmployeeRepository#findByEmployeeId").getParentSpanId())
+                .isEqualTo(spans.get("EmployeeServiceImpl#update").getSpanId());
+    }
+
+    @Test
+    void testCompressedRequestBody() throws Exception {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        EmployeeBatchCreateDto batch = new EmployeeBatchCreateDto();
+        batch.setEmployees(List.of(employeeDataDto));
+        final byte[] compressedBatch = gzip(objectMapper.writeValueAsBytes(batch));
+
+        final String batchResponse = performWrite(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(apiKeyHeader, apiKey)
+                .content(compressedBatch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        BatchItemResultDto[] results = objectMapper.readValue(batchResponse, BatchItemResultDto[].class);
+        assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(Status.CREATED);
+        verifyEmployeeDto(results[0].getEmployee(), employeeDataDto);
+
+        mockMvc.perform(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "br")
+                .header(apiKeyHeader, apiKey)
+                .content(compressedBatch))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void testCompressedRequestBodyInflatingBeyondLimit() throws Exception {
+        final byte[] compressedBomb = gzip((" ".repeat(2 * 1024 * 1024) + "{}").getBytes(UTF_8));
+
+        mockMvc.perform(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(apiKeyHeader, apiKey)
+                .content(compressedBomb))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(readKafkaRecords())
+                .isEmpty();
+    }
+
     @Test
     void testUnauthorisedAccessToCreateEmployeeEndpoint() throws Exception {
         EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
@@ -202,6 +800,90 @@ public class EmployeeControllerIT {
                 .isEmpty();
     }
 
+    private List<EmployeeDto> createEmployees(final int count) throws Exception {
+        EmployeeBatchCreateDto batch = new EmployeeBatchCreateDto();
+        batch.setEmployees(IntStream.range(0, count)
+                .mapToObj(i -> EmployeeDataGenerator.createEmployeeDataDto())
+                .toList());
+        final String batchResponse = performWrite(post(EMPLOYEES_BATCH_ENDPOINT)
+                .contentType(APPLICATION_JSON)
+                .header(apiKeyHeader, apiKey)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Arrays.stream(objectMapper.readValue(batchResponse, BatchItemResultDto[].class))
+                .map(BatchItemResultDto::getEmployee)
+                .toList();
+    }
+
+    private EmployeeDto copy(final EmployeeDto employeeDto) {
+        return objectMapper.convertValue(employeeDto, EmployeeDto.class);
+    }
+
+        private EmployeePageDto search(final String query) throws Exception {
+        return search(query, "");
+    }
+
+    private EmployeePageDto search(final String query, final String path) throws Exception {
+        final String response = mockMvc.perform(get(EMPLOYEES_SEARCH_ENDPOINT + path + "?" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, EmployeePageDto.class);
+    }
+
+    private List<Map<String, Object>> readFields(final String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        return objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+    }
+
+    private EmployeePageDto readPage(final String url) throws Exception {
+        final String response = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, EmployeePageDto.class);
+    }
+
+    /**
+     * Reads a newline delimited JSON response, one line per employee.
+     */
+    private List<String> readNdjson(final String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)
+                        .accept(EmployeeController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content()
+                        .contentTypeCompatibleWith(EmployeeController.APPLICATION_NDJSON_VALUE))
+                .andReturn();
+        return result.getResponse().getContentAsString().lines().toList();
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Modifying requests are processed asynchronously, performs the request and dispatches its result.
+     */
+    private ResultActions performWrite(final MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     public Consumer<String, String> configureKafkaConsumer(final EmbeddedKafkaBroker broker, final String topicName) {
         final Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("testGroup", "true", broker);
         consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
@@ -212,6 +894,19 @@ public class EmployeeControllerIT {
         return consumer;
     }
 
+    /**
+     * Events are relayed from the outbox asynchronously, keeps polling until the expected number of events
+     * arrived or the timeout expired.
+     */
+    public List<Map<EventType, EmployeeDto>> readKafkaRecords(final int expectedCount) {
+        final List<Map<EventType, EmployeeDto>> events = new ArrayList<>();
+        final long deadline = System.currentTimeMillis() + Duration.ofSeconds(10).toMillis();
+        while (events.size() < expectedCount && System.currentTimeMillis() < deadline) {
+            events.addAll(readKafkaRecords());
+        }
+        return events;
+    }
+
     public List<Map<EventType, EmployeeDto>> readKafkaRecords() {
         Iterable<ConsumerRecord<String, String>> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(2))
                 .records(topic);
@@ -231,6 +926,11 @@ public class EmployeeControllerIT {
 
         EmployeeDto employeeDto = objectMapper.convertValue(message.get(EVENT_DATA_KEY), EmployeeDto.class);
         EventType eventType = objectMapper.convertValue(message.get(EVENT_TYPE_KEY), EventType.class);
+        assertThat(record.key()).isEqualTo(employeeDto.getEmployeeId().toString());
+        assertThat(new String(record.headers().lastHeader(EventPublisher.EVENT_TYPE_HEADER).value(), UTF_8))
+                .isEqualTo(eventType.name());
+        assertThat(new String(record.headers().lastHeader(EventPublisher.EVENT_VERSION_HEADER).value(), UTF_8))
+                .isEqualTo(EventPublisher.EVENT_VERSION);
         return Map.of(eventType, employeeDto);
     }
 
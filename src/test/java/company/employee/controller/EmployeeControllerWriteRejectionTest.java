@@ -0,0 +1,75 @@
+package company.employee.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import company.employee.service.EmployeeService;
+import company.employee.service.HobbyDictionary;
+import company.employee.util.EmployeeDataGenerator;
+import company.employee.util.WriteExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * A write arriving while every write thread is busy and the queue is full is rejected right away.
+ */
+public class EmployeeControllerWriteRejectionTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+    private final CountDownLatch writeThreadReleased = new CountDownLatch(1);
+    private WriteExecutor writeExecutor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // a single write thread and no queue
+        writeExecutor = new WriteExecutor(true, 1, 0, new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeController(
+                employeeService,
+                objectMapper,
+                writeExecutor,
+                mock(HobbyDictionary.class)))
+                .build();
+        writeExecutor.supply(() -> {
+            try {
+                return writeThreadReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeThreadReleased.countDown();
+        writeExecutor.destroy();
+    }
+
+    @Test
+    void testWriteIsRejectedWithRetryAfterWhileQueueIsFull() throws Exception {
+        mockMvc.perform(post("/employees")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(EmployeeDataGenerator.createEmployeeDataDto())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        verifyNoInteractions(employeeService);
+    }
+}
@@ -0,0 +1,113 @@
+package company.employee.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+
+import company.employee.config.CacheConfig;
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EmployeeDataGenerator;
+import company.employee.util.EmployeeEvent;
+import company.employee.util.EventPublisher.EventType;
+
+/**
+ * Events sent by another instance have to be applied to the cache of this instance.
+ */
+@SpringBootTest
+@EmbeddedKafka(topics = "${topics.employee-events}", partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@DirtiesContext
+public class EmployeeEventListenerIT {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Value("${topics.employee-events}")
+    private String topic;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache employeeCache;
+
+    @BeforeEach
+    void setUp() {
+        listenerRegistry.getListenerContainers()
+                .forEach(container -> ContainerTestUtils.waitForAssignment(container, 1));
+        employeeCache = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+    }
+
+    @Test
+    void testUpdatedEventReplacesCachedEmployee() {
+        EmployeeDto cachedEmployee = EmployeeDataGenerator.createEmployeeDto();
+        cachedEmployee.setEmployeeId(UUID.randomUUID());
+        employeeCache.put(cachedEmployee.getEmployeeId(), cachedEmployee);
+
+        EmployeeDto updatedEmployee = EmployeeDataGenerator.createEmployeeDto();
+        updatedEmployee.setEmployeeId(cachedEmployee.getEmployeeId());
+        sendEvent(EventType.UPDATED, updatedEmployee);
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(
+                employeeCache.get(updatedEmployee.getEmployeeId(), EmployeeDto.class))
+                .isEqualTo(updatedEmployee));
+    }
+
+    @Test
+    void testDeletedEventEvictsCachedEmployee() {
+        EmployeeDto cachedEmployee = EmployeeDataGenerator.createEmployeeDto();
+        cachedEmployee.setEmployeeId(UUID.randomUUID());
+        employeeCache.put(cachedEmployee.getEmployeeId(), cachedEmployee);
+
+        sendEvent(EventType.DELETED, cachedEmployee);
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(
+                employeeCache.get(cachedEmployee.getEmployeeId()))
+                .isNull());
+    }
+
+    @Test
+    void testUpdatedEventAfterDeletedEventDoesNotRestoreEmployee() {
+        EmployeeDto deletedEmployee = EmployeeDataGenerator.createEmployeeDto();
+        deletedEmployee.setEmployeeId(UUID.randomUUID());
+        deletedEmployee.setVersion(2L);
+        employeeCache.put(deletedEmployee.getEmployeeId(), deletedEmployee);
+        EmployeeDto lateUpdatedEmployee = EmployeeDataGenerator.createEmployeeDto();
+        lateUpdatedEmployee.setEmployeeId(deletedEmployee.getEmployeeId());
+        lateUpdatedEmployee.setVersion(1L);
+        EmployeeDto laterEmployee = EmployeeDataGenerator.createEmployeeDto();
+        laterEmployee.setEmployeeId(UUID.randomUUID());
+
+        sendEvent(EventType.DELETED, deletedEmployee);
+        sendEvent(EventType.UPDATED, lateUpdatedEmployee);
+        sendEvent(EventType.UPDATED, deletedEmployee);
+        // the partition is consumed in order, once this event is applied the late ones were applied too
+        sendEvent(EventType.CREATED, laterEmployee);
+
+        await().atMost(TIMEOUT).untilAsserted(() -> assertThat(
+                employeeCache.get(laterEmployee.getEmployeeId(), EmployeeDto.class))
+                .isEqualTo(laterEmployee));
+        assertThat(employeeCache.get(deletedEmployee.getEmployeeId())).isNull();
+    }
+
+    private void sendEvent(final EventType eventType, final EmployeeDto employeeDto) {
+        kafkaTemplate.send(topic, employeeDto.getEmployeeId().toString(), new EmployeeEvent(eventType, employeeDto));
+    }
+}
@@ -0,0 +1,73 @@
+package company.employee.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import company.employee.config.ModelMapperConfig;
+import company.employee.domain.Employee;
+import company.employee.domain.Hobby;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EmployeeDataGenerator;
+
+/**
+ * Verifies that {@link EmployeeMapper} produces the same results as the ModelMapper configuration it replaces.
+ */
+public class EmployeeMapperTest {
+    private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+    private final EmployeeMapper mapper = new EmployeeMapper(hobby -> new Hobby(null, hobby));
+
+    @Test
+    void testEmployeeToEmployeeDtoParity() {
+        Employee employee = EmployeeDataGenerator.createEmployee();
+
+        assertThat(mapper.toEmployeeDto(employee))
+                .isEqualTo(modelMapper.map(employee, EmployeeDto.class));
+    }
+
+    @Test
+    void testEmployeeToEmployeeDataDtoParity() {
+        Employee employee = EmployeeDataGenerator.createEmployee();
+
+        assertThat(mapper.toEmployeeDataDto(employee))
+                .isEqualTo(modelMapper.map(employee, EmployeeDataDto.class));
+    }
+
+    @Test
+    void testEmployeeDataDtoToEmployeeParity() {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        Employee employee = mapper.toEmployee(employeeDataDto);
+
+        assertThat(employee)
+                .isEqualTo(modelMapper.map(employeeDataDto, Employee.class));
+        assertThat(employee.getId()).isNull();
+        assertThat(employee.getEmployeeId()).isNull();
+    }
+
+    @Test
+    void testEmployeeDtoToEmployeeParity() {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+
+        assertThat(mapper.toEmployee(employeeDto))
+                .isEqualTo(modelMapper.map(employeeDto, Employee.class));
+    }
+
+    @Test
+    void testMappingHobbiesEmptySetParity() {
+        EmployeeDataDto employeeDataDto = EmployeeDataGenerator.createEmployeeDataDto();
+        employeeDataDto.setHobbies(Set.of());
+        Employee employee = EmployeeDataGenerator.createEmployee();
+        employee.setHobbies(Set.of());
+
+        assertThat(mapper.toEmployee(employeeDataDto).getHobbies())
+                .isEqualTo(modelMapper.map(employeeDataDto, Employee.class).getHobbies())
+                .isEmpty();
+        assertThat(mapper.toEmployeeDataDto(employee).getHobbies())
+                .isEqualTo(modelMapper.map(employee, EmployeeDataDto.class).getHobbies())
+                .isEmpty();
+    }
+}
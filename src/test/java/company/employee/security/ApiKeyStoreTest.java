@@ -0,0 +1,63 @@
+package company.employee.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ApiKeyStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testDefaultKeyIsAccepted() {
+        ApiKeyStore apiKeyStore = new ApiKeyStore("secret", "");
+
+        assertThat(apiKeyStore.findKeyName("secret")).contains(ApiKeyStore.DEFAULT_KEY_NAME);
+        assertThat(apiKeyStore.findKeyName("secret2")).isEmpty();
+        assertThat(apiKeyStore.findKeyName("")).isEmpty();
+        assertThat(apiKeyStore.findKeyName(null)).isEmpty();
+    }
+
+    @Test
+    void testKeysFileIsReloadedWhenModified() throws IOException {
+        Path keysFile = tempDir.resolve("api-keys");
+        Files.write(keysFile, List.of("# rotated monthly", "reporting:" + hashHex("first")));
+        ApiKeyStore apiKeyStore = new ApiKeyStore("", keysFile.toString());
+        assertThat(apiKeyStore.findKeyName("first")).contains("reporting");
+
+        Files.write(keysFile, List.of("reporting:" + hashHex("second"), "import:" + hashHex("third")));
+        Files.setLastModifiedTime(keysFile, FileTime.from(Instant.now().plusSeconds(60)));
+        apiKeyStore.reloadIfModified();
+
+        assertThat(apiKeyStore.findKeyName("first")).isEmpty();
+        assertThat(apiKeyStore.findKeyName("second")).contains("reporting");
+        assertThat(apiKeyStore.findKeyName("third")).contains("import");
+    }
+
+    @Test
+    void testInvalidKeysFileKeepsPreviousKeys() throws IOException {
+        Path keysFile = tempDir.resolve("api-keys");
+        Files.write(keysFile, List.of("reporting:" + hashHex("first")));
+        ApiKeyStore apiKeyStore = new ApiKeyStore("", keysFile.toString());
+
+        Files.write(keysFile, List.of("reporting:not-a-hash"));
+        Files.setLastModifiedTime(keysFile, FileTime.from(Instant.now().plusSeconds(60)));
+        apiKeyStore.reloadIfModified();
+
+        assertThat(apiKeyStore.findKeyName("first")).contains("reporting");
+    }
+
+    private static String hashHex(final String apiKey) {
+        return HexFormat.of().formatHex(ApiKeyStore.hash(apiKey));
+    }
+}
@@ -0,0 +1,93 @@
+package company.employee.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import company.employee.security.RateLimitFilter.Limits;
+import company.employee.security.RateLimitFilter.Route;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+public class RateLimitFilterTest {
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoTime = new AtomicLong();
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(
+                API_KEY_HEADER,
+                new ApiKeyStore("secret", ""),
+                Map.of(Route.LIST, new Limits(1, 2, 1), Route.ITEM, new Limits(10, 10, 10)),
+                meterRegistry,
+                nanoTime::get);
+    }
+
+    @Test
+    void testRouteOfRequest() {
+        assertThat(RateLimitFilter.route(request("GET", "/employees"))).contains(Route.LIST);
+        assertThat(RateLimitFilter.route(request("GET", "/employees/search/index"))).contains(Route.LIST);
+        assertThat(RateLimitFilter.route(request("GET", "/employees/1"))).contains(Route.ITEM);
+        assertThat(RateLimitFilter.route(request("POST", "/employees"))).contains(Route.ITEM);
+        assertThat(RateLimitFilter.route(request("GET", "/actuator/health"))).isEmpty();
+    }
+
+    @Test
+    void testClientOverRateIsRejected() throws ServletException, IOException {
+        assertThat(filter(request("GET", "/employees")).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(request("GET", "/employees")).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse rejected = filter(request("GET", "/employees"));
+
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        // other clients and other routes have their own budget
+        MockHttpServletRequest keyRequest = request("GET", "/employees");
+        keyRequest.addHeader(API_KEY_HEADER, "secret");
+        assertThat(filter(keyRequest).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(request("GET", "/employees/1")).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get("employee.requests.rejected").tag("reason", "rate_limit").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsOverConcurrencyAreShed() throws ServletException, IOException {
+        MockHttpServletRequest asyncRequest = request("GET", "/employees");
+        asyncRequest.setAsyncSupported(true);
+        MockHttpServletResponse asyncResponse = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(asyncRequest, asyncResponse, (req, res) -> req.startAsync());
+
+        MockHttpServletRequest keyRequest = request("GET", "/employees");
+        keyRequest.addHeader(API_KEY_HEADER, "secret");
+        MockHttpServletResponse shed = filter(keyRequest);
+
+        assertThat(shed.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        asyncRequest.getAsyncContext().complete();
+        assertThat(filter(keyRequest).getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private MockHttpServletResponse filter(final MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(final String method, final String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,33 @@
+package company.employee.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstIsAllowedAndRefilledAtRate() {
+        TokenBucket tokenBucket = new TokenBucket(2, 3, 0);
+
+        assertThat(tokenBucket.tryConsume(0)).isZero();
+        assertThat(tokenBucket.tryConsume(0)).isZero();
+        assertThat(tokenBucket.tryConsume(0)).isZero();
+        assertThat(tokenBucket.tryConsume(0)).isEqualTo(SECOND / 2);
+
+        assertThat(tokenBucket.tryConsume(SECOND / 2)).isZero();
+        assertThat(tokenBucket.tryConsume(SECOND / 2)).isPositive();
+    }
+
+    @Test
+    void testIdleBucketDoesNotExceedCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(1, 2, 0);
+
+        assertThat(tokenBucket.tryConsume(100 * SECOND)).isZero();
+        assertThat(tokenBucket.tryConsume(100 * SECOND)).isZero();
+        assertThat(tokenBucket.tryConsume(100 * SECOND)).isEqualTo(SECOND);
+    }
+}
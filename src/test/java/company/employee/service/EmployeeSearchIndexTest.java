@@ -0,0 +1,130 @@
+package company.employee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.service.EmployeeSearchIndex.Criteria;
+import company.employee.service.EmployeeSearchIndex.Page;
+import company.employee.util.EmployeeDataGenerator;
+import company.employee.util.EventPublisher.EventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmployeeSearchIndex searchIndex;
+
+    @Mock
+    private ObjectProvider<EmployeeService> employeeServiceProvider;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new EmployeeSearchIndex(employeeServiceProvider, meterRegistry);
+    }
+
+    @Test
+    void testSearchIntersectsCriteria() {
+        EmployeeDto smith = createEmployeeDto("Smith", LocalDate.of(1980, 5, 1), "climbing", "chess");
+        EmployeeDto smalley = createEmployeeDto("Smalley", LocalDate.of(1990, 5, 1), "golf");
+        EmployeeDto jones = createEmployeeDto("Jones", LocalDate.of(1985, 5, 1), "climbing");
+        searchIndex.apply(EventType.CREATED, List.of(smith, smalley, jones));
+
+        assertThat(search(new Criteria(Set.of("climbing", "golf"), "sm", null, null)).employeeIds())
+                .containsExactly(smith.getEmployeeId(), smalley.getEmployeeId());
+        assertThat(search(new Criteria(Set.of("climbing"), null, LocalDate.of(1981, 1, 1), null)).employeeIds())
+                .containsExactly(jones.getEmployeeId());
+        assertThat(search(new Criteria(null, null, LocalDate.of(1980, 5, 1), LocalDate.of(1985, 5, 1))).employeeIds())
+                .containsExactly(smith.getEmployeeId(), jones.getEmployeeId());
+        assertThat(search(new Criteria(Set.of("unknown"), null, null, null)).employeeIds()).isEmpty();
+    }
+
+    @Test
+    void testSearchPages() {
+        EmployeeDto first = createEmployeeDto("Smith", LocalDate.of(1980, 5, 1), "chess");
+        EmployeeDto second = createEmployeeDto("Smith", LocalDate.of(1981, 5, 1), "chess");
+        searchIndex.apply(EventType.CREATED, List.of(first, second));
+        Criteria criteria = new Criteria(Set.of("chess"), null, null, null);
+
+        Page firstPage = searchIndex.search(criteria, null, 1).orElseThrow();
+        Page secondPage = searchIndex.search(criteria, firstPage.nextPageToken(), 1).orElseThrow();
+
+        assertThat(firstPage.employeeIds()).containsExactly(first.getEmployeeId());
+        assertThat(secondPage.employeeIds()).containsExactly(second.getEmployeeId());
+        assertThat(secondPage.nextPageToken()).isNull();
+        assertThat(searchIndex.search(criteria, "invalid", 1)).isEmpty();
+    }
+
+    @Test
+    void testOutdatedChangesAreIgnored() {
+        EmployeeDto employee = createEmployeeDto("Smith", LocalDate.of(1980, 5, 1), "chess");
+        employee.setVersion(1L);
+        EmployeeDto outdatedEmployee = createEmployeeDto("Jones", LocalDate.of(1980, 5, 1), "golf");
+        outdatedEmployee.setEmployeeId(employee.getEmployeeId());
+        outdatedEmployee.setVersion(0L);
+
+        searchIndex.apply(EventType.UPDATED, List.of(employee));
+        searchIndex.apply(EventType.CREATED, List.of(outdatedEmployee));
+        assertThat(search(new Criteria(Set.of("chess"), "smith", null, null)).employeeIds())
+                .containsExactly(employee.getEmployeeId());
+
+        searchIndex.apply(EventType.DELETED, List.of(employee));
+        searchIndex.apply(EventType.UPDATED, List.of(employee));
+        assertThat(search(new Criteria(Set.of("chess"), null, null, null)).employeeIds()).isEmpty();
+    }
+
+    @Test
+    void testRebuildReplacesIndexAndInvalidatesPageTokens() {
+        EmployeeDto employee = createEmployeeDto("Smith", LocalDate.of(1980, 5, 1), "chess");
+        EmployeeDto otherEmployee = createEmployeeDto("Smith", LocalDate.of(1980, 5, 1), "chess");
+        searchIndex.apply(EventType.CREATED, List.of(employee, otherEmployee));
+        Criteria criteria = new Criteria(Set.of("chess"), null, null, null);
+        String pageToken = searchIndex.search(criteria, null, 1).orElseThrow().nextPageToken();
+        when(employeeServiceProvider.getObject()).thenReturn(employeeService);
+        doAnswer(invocation -> {
+            invocation.<Consumer<EmployeeDto>>getArgument(0).accept(otherEmployee);
+            return null;
+        }).when(employeeService).streamAll(any());
+
+        assertThat(searchIndex.rebuild()).isEqualTo(1);
+
+        assertThat(search(criteria).employeeIds()).containsExactly(otherEmployee.getEmployeeId());
+        assertThat(searchIndex.search(criteria, pageToken, 1)).isEmpty();
+        assertThat(meterRegistry.get("employee.search.index.employees").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.search.index.memory").gauge().value()).isPositive();
+    }
+
+    private Page search(final Criteria criteria) {
+        return searchIndex.search(criteria, null, 100).orElseThrow();
+    }
+
+    private static EmployeeDto createEmployeeDto(
+            final String lastName,
+            final LocalDate birthday,
+            final String... hobbies) {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        employeeDto.setEmployeeId(UUID.randomUUID());
+        employeeDto.setLastName(lastName);
+        employeeDto.setBirthday(birthday);
+        employeeDto.setHobbies(Set.of(hobbies));
+        return employeeDto;
+    }
+}
@@ -0,0 +1,198 @@
+package company.employee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import company.employee.config.CacheConfig;
+import company.employee.domain.Employee;
+import company.employee.dto.EmployeeDataDto;
+import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.mapper.EmployeeMapper;
+import company.employee.repository.EmployeeRepository;
+import company.employee.util.EmployeeDataGenerator;
+import company.employee.util.EventPublisher;
+import company.employee.util.StatementCounter;
+import company.employee.util.UuidSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Guards the fetch plans of {@link EmployeeServiceImpl}: every read path has to load employees together
+ * with their hobbies in a fixed number of statements, independent of the number of employees.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ EmployeeServiceImpl.class, EmployeeMapper.class, HobbyDictionaryImpl.class, UuidSource.class,
+        SimpleMeterRegistry.class, CacheConfig.class })
+public class EmployeeServiceQueryCountTest {
+    private static final int EMPLOYEE_COUNT = 5;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeMapper mapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private EventPublisher eventPublisher;
+
+    private Statistics statistics;
+
+    private List<UUID> employeeIds;
+
+    @BeforeEach
+    void setUp() {
+        employeeIds = IntStream.range(0, EMPLOYEE_COUNT)
+                .mapToObj(i -> {
+                    Employee employee = mapper.toEmployee(EmployeeDataGenerator.createEmployeeDataDto());
+                    employee.setEmployeeId(UUID.randomUUID());
+                    return employeeRepository.save(employee).getEmployeeId();
+                })
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllUsesSingleStatement() {
+        List<EmployeeDto> employees = employeeService.findAll();
+
+        assertThat(employees).hasSize(EMPLOYEE_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindUsesSingleStatement() {
+        assertThat(employeeService.find(employeeIds.get(0))).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindPageUsesTwoStatements() {
+        assertThat(employeeService.findPage(null, EMPLOYEE_COUNT, EmployeeField.ALL)).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testFindPageByHobbyUsesTwoStatements() {
+        EmployeeDto employee = employeeService.find(employeeIds.get(0)).orElseThrow();
+        String hobby = employee.getHobbies().iterator().next();
+        statistics.clear();
+
+        assertThat(employeeService.findPageByHobby(hobby, null, EMPLOYEE_COUNT, EmployeeField.ALL)
+                .orElseThrow()
+                .getEmployees())
+                .contains(employee);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testFindPageOfSelectedFieldsLoadsNoEntities() {
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.EMPLOYEE_ID, EmployeeField.EMAIL);
+
+        List<EmployeeDto> employees = employeeService.findPage(null, EMPLOYEE_COUNT, fields)
+                .orElseThrow()
+                .getEmployees();
+
+        assertThat(employees).extracting(EmployeeDto::getEmployeeId).containsExactlyElementsOf(employeeIds);
+        assertThat(employees).allSatisfy(employee -> {
+            assertThat(employee.getEmail()).isNotNull();
+            assertThat(employee.getLastName()).isNull();
+            assertThat(employee.getHobbies()).isNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void testStreamAllOfSelectedFieldsLoadsNoEntities() {
+        List<EmployeeDto> employees = new ArrayList<>();
+        employeeService.streamAll(EnumSet.of(EmployeeField.EMAIL), employees::add);
+
+        assertThat(employees).hasSize(EMPLOYEE_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testStreamAllUsesSingleStatement() {
+        List<EmployeeDto> employees = new ArrayList<>();
+        employeeService.streamAll(employees::add);
+
+        assertThat(employees).hasSize(EMPLOYEE_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testStatementCounterCountsPreparedStatements() {
+        AtomicInteger count = new AtomicInteger();
+        try (StatementCounter.Scope scope = StatementCounter.bind(count)) {
+            employeeService.findPage(null, EMPLOYEE_COUNT, EmployeeField.ALL);
+        }
+        employeeService.findCollectionVersion();
+
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void testFindCollectionVersionUsesSingleStatement() {
+        assertThat(employeeService.findCollectionVersion()).isNotBlank();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdateAndDeleteDoNotLazyLoadHobbies() {
+        employeeService.update(employeeIds.get(0), EmployeeDataGenerator.createEmployeeDataDto(), null);
+        employeeService.delete(employeeIds.get(1));
+        entityManager.flush();
+
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    @Test
+    void testUpdateWritesOnlyChangedData() {
+        EmployeeDto employee = employeeService.find(employeeIds.get(0)).orElseThrow();
+        EmployeeDataDto employeeData = mapper.toEmployeeDataDto(
+                employeeRepository.findByEmployeeId(employee.getEmployeeId()).orElseThrow());
+        employeeData.setLastName(employee.getLastName() + "-changed");
+        statistics.clear();
+
+        EmployeeDto updatedEmployee = employeeService.update(employee.getEmployeeId(), employeeData, null)
+                .orElseThrow();
+
+        assertThat(updatedEmployee.getVersion()).isEqualTo(employee.getVersion() + 1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+    }
+}
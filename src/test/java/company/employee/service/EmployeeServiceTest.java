@@ -1,6 +1,7 @@
 package company.employee.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -18,22 +19,39 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
-import company.employee.config.ModelMapperConfig;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import company.employee.config.CacheConfig;
 import company.employee.domain.Employee;
+import company.employee.domain.Hobby;
 import company.employee.dto.EmployeeDataDto;
 import company.employee.dto.EmployeeDto;
+import company.employee.dto.EmployeeField;
+import company.employee.dto.EmployeePageDto;
+import company.employee.dto.EmployeePatchDto;
+import company.employee.mapper.EmployeeMapper;
 import company.employee.repository.EmployeeRepository;
 import company.employee.util.EmployeeDataGenerator;
 import company.employee.util.EventPublisher;
 import company.employee.util.UuidSource;
 import company.employee.util.EventPublisher.EventType;
+import company.employee.util.PageToken;
+import company.employee.util.VersionedEmployeeCache;
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
-    private final ModelMapper mapper = new ModelMapperConfig()
-            .modelMapper();
+    private final EmployeeMapper mapper = new EmployeeMapper(hobby -> new Hobby(null, hobby));
+    private final Cache employeeCache = new VersionedEmployeeCache(
+            CacheConfig.EMPLOYEES_CACHE,
+            Caffeine.newBuilder().build(),
+            false);
     private EmployeeService employeeService;
 
     @Mock
@@ -45,13 +63,25 @@ public class EmployeeServiceTest {
     @Mock
     private UuidSource uuidSource;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ObjectProvider<EmployeeSearchIndex> searchIndex;
+
     @BeforeEach
     void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(employeeCache));
+        cacheManager.afterPropertiesSet();
         employeeService = new EmployeeServiceImpl(
                 mapper,
                 uuidSource,
                 employeeRepository,
-                eventPublisher);
+                eventPublisher,
+                entityManager,
+                searchIndex,
+                cacheManager);
     }
 
     @Test
@@ -59,8 +89,8 @@ public class EmployeeServiceTest {
         // given
         EmployeeDto firstExpectedEmployee = EmployeeDataGenerator.createEmployeeDto();
         EmployeeDto secondExpectedEmployee = EmployeeDataGenerator.createEmployeeDto();
-        Employee firstEmployee = mapper.map(firstExpectedEmployee, Employee.class);
-        Employee secondEmployee = mapper.map(secondExpectedEmployee, Employee.class);
+        Employee firstEmployee = mapper.toEmployee(firstExpectedEmployee);
+        Employee secondEmployee = mapper.toEmployee(secondExpectedEmployee);
         // when
         when(employeeRepository.findAll()).thenReturn(
                 List.of(firstEmployee, secondEmployee));
@@ -81,12 +111,44 @@ public class EmployeeServiceTest {
         assertThat(employees).isEmpty();
     }
 
+    @Test
+    void testFindPageReturnsContinuationTokenForFullPage() {
+        // given
+        Employee firstEmployee = EmployeeDataGenerator.createEmployee();
+        Employee secondEmployee = EmployeeDataGenerator.createEmployee();
+
+        // when
+        when(employeeRepository.findIdsAfter(0L, PageRequest.ofSize(2)))
+                .thenReturn(List.of(firstEmployee.getId(), secondEmployee.getId()));
+        when(employeeRepository.findByIdInOrderByIdAsc(List.of(firstEmployee.getId(), secondEmployee.getId())))
+                .thenReturn(List.of(firstEmployee, secondEmployee));
+        Optional<EmployeePageDto> page = employeeService.findPage(null, 2, EmployeeField.ALL);
+
+        // then
+        assertThat(page).isPresent();
+        assertThat(page.get().getEmployees())
+                .containsExactly(
+                        mapper.toEmployeeDto(firstEmployee),
+                        mapper.toEmployeeDto(secondEmployee));
+        assertThat(page.get().getNextPageToken())
+                .isEqualTo(PageToken.encode(secondEmployee.getId()));
+    }
+
+    @Test
+    void testFindPageRejectsMalformedToken() {
+        // when
+        Optional<EmployeePageDto> page = employeeService.findPage("not a token", 10, EmployeeField.ALL);
+
+        // then
+        assertThat(page).isEmpty();
+    }
+
     @Test
     void testFindEmployeesByUuidReturnsEmployee() {
         // given
         Employee expectedEmployee = EmployeeDataGenerator.createEmployee();
         UUID employeeUuid = expectedEmployee.getEmployeeId();
-        EmployeeDto expectedEmployeeEntity = mapper.map(expectedEmployee, EmployeeDto.class);
+        EmployeeDto expectedEmployeeEntity = mapper.toEmployeeDto(expectedEmployee);
 
         // when
         when(employeeRepository.findByEmployeeId(employeeUuid))
@@ -117,12 +179,12 @@ public class EmployeeServiceTest {
     void testCreateEmployeePersistsEmployee() {
         // given
         EmployeeDataDto employeeData = EmployeeDataGenerator.createEmployeeDataDto();
-        Employee savedEmployeeEntity = mapper.map(employeeData, Employee.class);
+        Employee savedEmployeeEntity = mapper.toEmployee(employeeData);
         UUID employeeId = UUID.randomUUID();
         savedEmployeeEntity.setEmployeeId(employeeId);
-        EmployeeDto expectedEmployee = mapper.map(savedEmployeeEntity, EmployeeDto.class);
+        EmployeeDto expectedEmployee = mapper.toEmployeeDto(savedEmployeeEntity);
         // when
-        when(uuidSource.randomUUID()).thenReturn(employeeId);
+        when(uuidSource.timeOrderedUUID()).thenReturn(employeeId);
         when(employeeRepository.save(savedEmployeeEntity)).thenReturn(savedEmployeeEntity);
         Optional<EmployeeDto> result = employeeService.create(employeeData);
 
@@ -138,7 +200,7 @@ public class EmployeeServiceTest {
         // given
         EmployeeDataDto employeeData = EmployeeDataGenerator.createEmployeeDataDto();
         String employeeEmail = employeeData.getEmail();
-        Employee savedEmployeeEntity = mapper.map(employeeData, Employee.class);
+        Employee savedEmployeeEntity = mapper.toEmployee(employeeData);
         UUID employeeId = UUID.randomUUID();
         savedEmployeeEntity.setEmployeeId(employeeId);
         // when
@@ -159,27 +221,93 @@ public class EmployeeServiceTest {
         EmployeeDataDto updatedEmployeeData = EmployeeDataGenerator.createEmployeeDataDto(); // generates new email
         updatedEmployeeData.setLastName("lastname" + Instant.now().getEpochSecond());
         updatedEmployeeData.setHobbies(Set.of("hobby1", "hobby2"));
-        Employee updatedEmployeeEntity = mapper.map(updatedEmployeeData, Employee.class);
+        Employee updatedEmployeeEntity = mapper.toEmployee(updatedEmployeeData);
         updatedEmployeeEntity.setEmployeeId(employeeId);
-        EmployeeDto updatedEmployeeDto = mapper.map(updatedEmployeeEntity, EmployeeDto.class);
+        EmployeeDto updatedEmployeeDto = mapper.toEmployeeDto(updatedEmployeeEntity);
 
         EmployeeDataDto originalEmployeeData = EmployeeDataGenerator.createEmployeeDataDto();
-        Employee originalEmployeeEntity = mapper.map(originalEmployeeData, Employee.class);
+        Employee originalEmployeeEntity = mapper.toEmployee(originalEmployeeData);
         originalEmployeeEntity.setEmployeeId(employeeId);
 
         // when
         when(employeeRepository.findByEmployeeId(employeeId))
                 .thenReturn(Optional.of(originalEmployeeEntity));
-        when(employeeRepository.save(updatedEmployeeEntity)).thenReturn(updatedEmployeeEntity);
-        Optional<EmployeeDto> result = employeeService.update(employeeId, updatedEmployeeData);
+        Optional<EmployeeDto> result = employeeService.update(employeeId, updatedEmployeeData, null);
 
         // then
         assertThat(result)
                 .isPresent()
                 .contains(updatedEmployeeDto);
+        verify(employeeRepository).flush();
+        verify(employeeRepository, never()).save(any());
         verify(eventPublisher).publishEmployeeEvent(EventType.UPDATED, updatedEmployeeDto);
     }
 
+    @Test
+    void testUpdateWithoutChangesPublishesNoEvent() {
+        // given
+        UUID employeeId = UUID.randomUUID();
+        EmployeeDataDto employeeData = EmployeeDataGenerator.createEmployeeDataDto();
+        Employee employeeEntity = mapper.toEmployee(employeeData);
+        employeeEntity.setEmployeeId(employeeId);
+
+        // when
+        when(employeeRepository.findByEmployeeId(employeeId))
+                .thenReturn(Optional.of(employeeEntity));
+        Optional<EmployeeDto> result = employeeService.update(employeeId, employeeData, null);
+
+        // then
+        assertThat(result)
+                .isPresent()
+                .contains(mapper.toEmployeeDto(employeeEntity));
+        verify(eventPublisher, never()).publishEmployeeEvent(eq(EventType.UPDATED), any(EmployeeDto.class));
+    }
+
+    @Test
+    void testUpdateWithOutdatedVersionIsRejected() {
+        // given
+        UUID employeeId = UUID.randomUUID();
+        Employee employeeEntity = mapper.toEmployee(EmployeeDataGenerator.createEmployeeDataDto());
+        employeeEntity.setEmployeeId(employeeId);
+        employeeEntity.setVersion(2L);
+
+        // when
+        when(employeeRepository.findByEmployeeId(employeeId))
+                .thenReturn(Optional.of(employeeEntity));
+
+        // then
+        assertThatThrownBy(() -> employeeService.update(employeeId, EmployeeDataGenerator.createEmployeeDataDto(), 1L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(employeeRepository, never()).flush();
+        verify(eventPublisher, never()).publishEmployeeEvent(eq(EventType.UPDATED), any(EmployeeDto.class));
+    }
+
+    @Test
+    void testPatchChangesOnlyGivenFields() {
+        // given
+        UUID employeeId = UUID.randomUUID();
+        Employee employeeEntity = mapper.toEmployee(EmployeeDataGenerator.createEmployeeDataDto());
+        employeeEntity.setEmployeeId(employeeId);
+        EmployeeDto expectedEmployee = mapper.toEmployeeDto(employeeEntity);
+        expectedEmployee.setLastName("patched");
+        expectedEmployee.setHobbies(Set.of("hobby1"));
+
+        EmployeePatchDto employeePatch = new EmployeePatchDto();
+        employeePatch.setLastName("patched");
+        employeePatch.setHobbies(Set.of("hobby1"));
+
+        // when
+        when(employeeRepository.findByEmployeeId(employeeId))
+                .thenReturn(Optional.of(employeeEntity));
+        Optional<EmployeeDto> result = employeeService.patch(employeeId, employeePatch, null);
+
+        // then
+        assertThat(result)
+                .isPresent()
+                .contains(expectedEmployee);
+        verify(eventPublisher).publishEmployeeEvent(EventType.UPDATED, expectedEmployee);
+    }
+
     @Test
     void testNoUpdateForUnknownEmployeeId() {
         // given
@@ -190,7 +318,7 @@ public class EmployeeServiceTest {
         // when
         when(employeeRepository.findByEmployeeId(wrongEmployeeId))
                 .thenReturn(Optional.empty());
-        Optional<EmployeeDto> result = employeeService.update(wrongEmployeeId, updatedEmployeeData);
+        Optional<EmployeeDto> result = employeeService.update(wrongEmployeeId, updatedEmployeeData, null);
 
         // then
         assertThat(result).isEmpty();
@@ -201,10 +329,10 @@ public class EmployeeServiceTest {
     void testDeleteEmployeeDeletesEmployeeRecord() {
         // given
         EmployeeDataDto employeeData = EmployeeDataGenerator.createEmployeeDataDto();
-        Employee savedEmployeeEntity = mapper.map(employeeData, Employee.class);
+        Employee savedEmployeeEntity = mapper.toEmployee(employeeData);
         UUID employeeId = UUID.randomUUID();
         savedEmployeeEntity.setEmployeeId(employeeId);
-        EmployeeDto expectedEmployee = mapper.map(savedEmployeeEntity, EmployeeDto.class);
+        EmployeeDto expectedEmployee = mapper.toEmployeeDto(savedEmployeeEntity);
         // when
         // when(uuidSource.randomUUID()).thenReturn(employeeId);
         when(employeeRepository.findByEmployeeId(employeeId))
@@ -215,9 +343,50 @@ public class EmployeeServiceTest {
         assertThat(result)
                 .isPresent()
                 .contains(expectedEmployee);
+        verify(employeeRepository).delete(savedEmployeeEntity);
         verify(eventPublisher).publishEmployeeEvent(EventType.DELETED, expectedEmployee);
     }
 
+    @Test
+    void testReadDuringDeleteDoesNotCacheDeletedEmployee() {
+        // given
+        Employee employee = mapper.toEmployee(EmployeeDataGenerator.createEmployeeDataDto());
+        UUID employeeId = UUID.randomUUID();
+        employee.setEmployeeId(employeeId);
+        employee.setVersion(3L);
+        when(employeeRepository.findByEmployeeId(employeeId))
+                .thenReturn(Optional.of(employee));
+        // a reader missing the cache loaded the employee before the delete committed
+        EmployeeDto readBeforeDelete = employeeService.find(employeeId).orElseThrow();
+
+        // when
+        employeeService.delete(employeeId);
+        employeeCache.put(employeeId, readBeforeDelete);
+
+        // then
+        assertThat(employeeCache.get(employeeId)).isNull();
+    }
+
+    @Test
+    void testBatchDeleteKeepsOtherCachedEmployees() {
+        // given
+        Employee employee = mapper.toEmployee(EmployeeDataGenerator.createEmployeeDataDto());
+        employee.setEmployeeId(UUID.randomUUID());
+        employeeCache.put(employee.getEmployeeId(), mapper.toEmployeeDto(employee));
+        EmployeeDto otherEmployee = EmployeeDataGenerator.createEmployeeDto();
+        otherEmployee.setEmployeeId(UUID.randomUUID());
+        employeeCache.put(otherEmployee.getEmployeeId(), otherEmployee);
+        when(employeeRepository.findByEmployeeIdIn(List.of(employee.getEmployeeId())))
+                .thenReturn(List.of(employee));
+
+        // when
+        employeeService.deleteAll(List.of(employee.getEmployeeId()));
+
+        // then
+        assertThat(employeeCache.get(employee.getEmployeeId())).isNull();
+        assertThat(employeeCache.get(otherEmployee.getEmployeeId(), EmployeeDto.class)).isEqualTo(otherEmployee);
+    }
+
     @Test
     void testDeleteWithWrongEmployeeId() {
         // given
@@ -0,0 +1,104 @@
+package company.employee.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import company.employee.domain.Hobby;
+import company.employee.repository.HobbyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ HobbyDictionaryImpl.class, SimpleMeterRegistry.class })
+// writes intern their hobbies outside of a transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class HobbyDictionaryImplTest {
+
+    @Autowired
+    private HobbyDictionary hobbyDictionary;
+
+    @Autowired
+    private HobbyRepository hobbyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testInternReturnsSharedEntryWithoutQueryingAgain() {
+        String hobbyName = "chess-" + UUID.randomUUID();
+
+        Hobby hobby = hobbyDictionary.intern(hobbyName);
+        statistics.clear();
+
+        assertThat(hobby.getId()).isNotNull();
+        assertThat(hobbyDictionary.intern(hobbyName)).isSameAs(hobby);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void testInternAllStoresEveryDistinctHobbyOnce() {
+        String hobbyName = "chess-" + UUID.randomUUID();
+
+        Map<String, Hobby> hobbies = hobbyDictionary.internAll(List.of(hobbyName, hobbyName.toUpperCase(), hobbyName));
+
+        assertThat(hobbies).containsOnlyKeys(hobbyName, hobbyName.toUpperCase());
+        assertThat(hobbies.get(hobbyName).getId()).isNotEqualTo(hobbies.get(hobbyName.toUpperCase()).getId());
+        assertThat(hobbyRepository.findByHobbyKeyIn(List.of(Hobby.toKey(hobbyName)))).hasSize(1);
+    }
+
+    @Test
+    void testInternInsideTransactionCachesEntryAfterCommit() {
+        String hobbyName = "chess-" + UUID.randomUUID();
+
+        Hobby hobby = transaction.execute(status -> hobbyDictionary.intern(hobbyName));
+        statistics.clear();
+
+        assertThat(hobbyDictionary.intern(hobbyName)).isSameAs(hobby);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void testInternInsideRolledBackTransactionIsNotCached() {
+        String hobbyName = "chess-" + UUID.randomUUID();
+
+        transaction.executeWithoutResult(status -> {
+            hobbyDictionary.intern(hobbyName);
+            status.setRollbackOnly();
+        });
+
+        assertThat(hobbyRepository.findByHobbyKeyIn(List.of(Hobby.toKey(hobbyName)))).isEmpty();
+        assertThat(hobbyDictionary.intern(hobbyName).getId()).isNotNull();
+        assertThat(hobbyRepository.findByHobbyKeyIn(List.of(Hobby.toKey(hobbyName)))).hasSize(1);
+    }
+}
@@ -0,0 +1,162 @@
+package company.employee.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import company.employee.dto.EmployeeDto;
+import company.employee.util.EventPublisher.EventType;
+
+public class EmployeeEventSerializerTest {
+    private static final String TOPIC = "employee.topic";
+
+    private final EmployeeEventDeserializer deserializer = new EmployeeEventDeserializer();
+
+    @ParameterizedTest
+    @EnumSource(EmployeeEventEncoding.class)
+    void testRoundTrip(final EmployeeEventEncoding encoding) {
+        EmployeeEvent event = createEvent();
+        Headers headers = new RecordHeaders();
+
+        byte[] data = new EmployeeEventSerializer(encoding).serialize(TOPIC, headers, event);
+
+        assertThat(deserializer.deserialize(TOPIC, headers, data)).isEqualTo(event);
+    }
+
+    @Test
+    void testEncodingIsConfiguredByProducerProperty() {
+        EmployeeEventSerializer serializer = new EmployeeEventSerializer();
+        serializer.configure(Map.of(EmployeeEventSerializer.ENCODING_CONFIG, "avro"), false);
+        Headers headers = new RecordHeaders();
+
+        serializer.serialize(TOPIC, headers, createEvent());
+
+        assertThat(EmployeeEventEncoding.fromHeaders(headers)).isEqualTo(EmployeeEventEncoding.AVRO);
+    }
+
+    @Test
+    void testRecordsWithoutContentTypeAreReadAsJson() {
+        EmployeeEvent event = createEvent();
+        byte[] data = new EmployeeEventSerializer(EmployeeEventEncoding.JSON).serialize(TOPIC, event);
+
+        assertThat(deserializer.deserialize(TOPIC, new RecordHeaders(), data)).isEqualTo(event);
+    }
+
+    @Test
+    void testUnknownEncodingIsHandedToTheErrorHandler() {
+        byte[] data = new EmployeeEventSerializer(EmployeeEventEncoding.JSON).serialize(TOPIC, createEvent());
+        Headers headers = new RecordHeaders();
+        headers.add(
+                EmployeeEventEncoding.CONTENT_TYPE_HEADER,
+                "application/x-protobuf".getBytes(StandardCharsets.UTF_8));
+
+        try (ErrorHandlingDeserializer<EmployeeEvent> errorHandlingDeserializer =
+                new ErrorHandlingDeserializer<>(deserializer)) {
+            assertThat(errorHandlingDeserializer.deserialize(TOPIC, headers, data)).isNull();
+        }
+        assertThat(headers.lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER)).isNotNull();
+    }
+
+    @Test
+    void testAvroRecordsOfThePreviousVersionAreResolved() throws IOException {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        employeeDto.setEmployeeId(UUID.randomUUID());
+        employeeDto.setHobbies(Set.of("chess"));
+        Headers headers = new RecordHeaders();
+        EmployeeEventEncoding.AVRO.addHeader(headers);
+        headers.add(EventPublisher.EVENT_VERSION_HEADER, "1".getBytes(StandardCharsets.UTF_8));
+
+        EmployeeEvent event = deserializer.deserialize(TOPIC, headers, encodeVersion1(employeeDto));
+
+        assertThat(event.getEventType()).isEqualTo(EventType.DELETED);
+        assertThat(event.getEmployeeData().getEmployeeId()).isEqualTo(employeeDto.getEmployeeId());
+        assertThat(event.getEmployeeData().getEmail()).isEqualTo(employeeDto.getEmail());
+        assertThat(event.getEmployeeData().getBirthday()).isEqualTo(employeeDto.getBirthday());
+        assertThat(event.getEmployeeData().getHobbies()).containsExactly("chess");
+        assertThat(event.getEmployeeData().getVersion()).isNull();
+    }
+
+    @Test
+    void testAvroRecordsOfAnUnknownVersionAreRejected() {
+        Headers headers = new RecordHeaders();
+        byte[] data = new EmployeeEventSerializer(EmployeeEventEncoding.AVRO).serialize(TOPIC, headers, createEvent());
+        headers.add(EventPublisher.EVENT_VERSION_HEADER, "99".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, headers, data))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void testAvroIsSmallerThanJson() {
+        EmployeeEvent event = createEvent();
+
+        byte[] json = new EmployeeEventSerializer(EmployeeEventEncoding.JSON).serialize(TOPIC, event);
+        byte[] avro = new EmployeeEventSerializer(EmployeeEventEncoding.AVRO).serialize(TOPIC, event);
+
+        assertThat(avro.length).isLessThan(json.length);
+    }
+
+    /**
+     * Writes the event the way producers did before the employee version was added to the schema.
+     */
+    private static byte[] encodeVersion1(final EmployeeDto employeeDto) throws IOException {
+        Schema schema;
+        try (InputStream in = EmployeeEventSerializerTest.class.getResourceAsStream("/avro/employee-event-v1.avsc")) {
+            schema = new Schema.Parser().parse(in);
+        }
+        Schema employeeSchema = schema.getField(EventPublisher.EVENT_DATA_FIELD_NAME).schema();
+        UUID employeeId = employeeDto.getEmployeeId();
+        GenericRecord employee = new GenericData.Record(employeeSchema);
+        employee.put("employee_id", new GenericData.Fixed(
+                employeeSchema.getField("employee_id").schema(),
+                ByteBuffer.allocate(16)
+                        .putLong(employeeId.getMostSignificantBits())
+                        .putLong(employeeId.getLeastSignificantBits())
+                        .array()));
+        employee.put("first_name", employeeDto.getFirstName());
+        employee.put("last_name", employeeDto.getLastName());
+        employee.put("email", employeeDto.getEmail());
+        employee.put("birthday", (int) employeeDto.getBirthday().toEpochDay());
+        employee.put("hobbies", List.copyOf(employeeDto.getHobbies()));
+        GenericRecord record = new GenericData.Record(schema);
+        record.put(EventPublisher.EVENT_TYPE_FIELD_NAME, new GenericData.EnumSymbol(
+                schema.getField(EventPublisher.EVENT_TYPE_FIELD_NAME).schema(), EventType.DELETED.name()));
+        record.put(EventPublisher.EVENT_DATA_FIELD_NAME, employee);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static EmployeeEvent createEvent() {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        employeeDto.setEmployeeId(UUID.randomUUID());
+        return new EmployeeEvent(EventType.UPDATED, employeeDto);
+    }
+}
@@ -0,0 +1,65 @@
+package company.employee.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+
+public class FileSpanExporterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testSpansAreWrittenAsJsonLines() throws Exception {
+        Path file = directory.resolve("spans.jsonl");
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file, objectMapper)))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        Span parent = tracer.spanBuilder("EmployeeServiceImpl#update").startSpan();
+        try (Scope scope = parent.makeCurrent()) {
+            tracer.spanBuilder("EmployeeRepository#findByEmployeeId")
+                    .setAttribute("key", "value")
+                    .startSpan()
+                    .end();
+        } finally {
+            parent.end();
+        }
+        tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(2);
+        Map<String, Object> child = objectMapper.readValue(lines.get(0), new TypeReference<Map<String, Object>>() {
+        });
+        Map<String, Object> root = objectMapper.readValue(lines.get(1), new TypeReference<Map<String, Object>>() {
+        });
+        assertThat(child)
+                .containsEntry("name", "EmployeeRepository#findByEmployeeId")
+                .containsEntry("traceId", root.get("traceId"))
+                .containsEntry("parentSpanId", root.get("spanId"))
+                .containsEntry("attributes", Map.of("key", "value"))
+                .containsKeys("start", "durationMicros", "status");
+        assertThat(root)
+                .containsEntry("name", "EmployeeServiceImpl#update")
+                .doesNotContainKey("parentSpanId");
+    }
+}
@@ -0,0 +1,38 @@
+package company.employee.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class UuidSourceTest {
+    private final UuidSource uuidSource = new UuidSource();
+
+    @Test
+    void testTimeOrderedUuidIsVersion7() {
+        UUID uuid = uuidSource.timeOrderedUUID();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void testTimeOrderedUuidsSortByCreationTime() throws InterruptedException {
+        UUID earlier = uuidSource.timeOrderedUUID();
+        Thread.sleep(2);
+        UUID later = uuidSource.timeOrderedUUID();
+
+        assertThat(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()))
+                .isNegative();
+    }
+
+    @Test
+    void testTimeOrderedUuidEmbedsCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = uuidSource.timeOrderedUUID();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+}
@@ -0,0 +1,54 @@
+package company.employee.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import company.employee.dto.EmployeeDto;
+
+public class VersionedEmployeeCacheTest {
+    private final VersionedEmployeeCache cache = new VersionedEmployeeCache(
+            "employees",
+            Caffeine.newBuilder().build(),
+            false);
+    private final UUID employeeId = UUID.randomUUID();
+
+    @Test
+    void testLaterVersionReplacesCachedEmployee() {
+        cache.put(employeeId, createEmployeeDto(1L));
+        cache.put(employeeId, createEmployeeDto(2L));
+
+        assertThat(cache.get(employeeId, EmployeeDto.class).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceCachedEmployee() {
+        cache.put(employeeId, createEmployeeDto(2L));
+        cache.put(employeeId, createEmployeeDto(1L));
+
+        assertThat(cache.get(employeeId, EmployeeDto.class).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void testTombstoneRejectsDeletedAndOlderVersions() {
+        cache.put(employeeId, createEmployeeDto(2L));
+        cache.put(employeeId, new VersionedEmployeeCache.Tombstone(2L));
+        cache.put(employeeId, createEmployeeDto(1L));
+        cache.put(employeeId, createEmployeeDto(2L));
+
+        assertThat(cache.get(employeeId)).isNull();
+        assertThat(cache.get(employeeId, () -> createEmployeeDto(2L)).getVersion()).isEqualTo(2L);
+        assertThat(cache.get(employeeId)).isNull();
+    }
+
+        private EmployeeDto createEmployeeDto(final long version) {
+        EmployeeDto employeeDto = EmployeeDataGenerator.createEmployeeDto();
+        employeeDto.setEmployeeId(employeeId);
+        employeeDto.setVersion(version);
+        return employeeDto;
+    }
+}